@@ -9,11 +9,71 @@ repositories {
     mavenCentral()
 }
 
+sourceSets {
+    create("vector") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output + sourceSets["vector"].output
+        runtimeClasspath += sourceSets.main.get().output + sourceSets["vector"].output
+    }
+    test {
+        compileClasspath += sourceSets["vector"].output
+        runtimeClasspath += sourceSets["vector"].output
+    }
+}
+
+val jmhImplementation by configurations.getting
+val jmhAnnotationProcessor by configurations.getting
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+
+    jmhImplementation("org.openjdk.jmh:jmh-core:1.37")
+    jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+/*
+ * VectorSort is built against the incubating Vector API, so src/vector is the only
+ * part of the build that is compiled with the module, and QuickSort loads the class
+ * by name. The module is only added to the runtime where the vector sort should be
+ * used, the library falls back to the scalar sort everywhere else.
+ */
+tasks.named<JavaCompile>("compileVectorJava") {
+    options.compilerArgs.add("--add-modules=jdk.incubator.vector")
+}
+
+tasks.jar {
+    from(sourceSets["vector"].output)
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+    jvmArgs("--add-modules=jdk.incubator.vector")
+}
+
+/*
+ * Runs the benchmarks from src/jmh and writes the results as JSON to
+ * build/reports/jmh/results.json, so that runs of different releases can be diffed.
+ * A subset can be selected with -Pjmh.include=<regexp>.
+ */
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    dependsOn(tasks.named("jmhClasses"))
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.file(results)
+    doFirst {
+        results.get().asFile.parentFile.mkdirs()
+    }
+    args = listOfNotNull(
+        project.findProperty("jmh.include")?.toString(),
+        "-rf", "json",
+        "-rff", results.get().asFile.absolutePath
+    )
+}
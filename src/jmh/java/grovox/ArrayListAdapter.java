@@ -0,0 +1,64 @@
+package grovox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *  Wraps {@link ArrayList} into the {@link MyList} interface,
+ *  so that the JDK list can be measured by the same benchmarks
+ *  as our own implementations and used as a baseline.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+class ArrayListAdapter<E> implements MyList<E> {
+    /**
+     * The list to which all calls are delegated.
+     */
+    private final ArrayList<E> list = new ArrayList<>();
+
+    @Override
+    public boolean add(E e) {
+        return list.add(e);
+    }
+
+    @Override
+    public boolean add(int index, E e) {
+        list.add(index, e);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(E[] c) {
+        return list.addAll(Arrays.asList(c));
+    }
+
+    @Override
+    public E remove(int index) {
+        return list.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        list.clear();
+    }
+
+    @Override
+    public E get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public E set(int index, E e) {
+        return list.set(index, e);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return list.isEmpty();
+    }
+}
@@ -0,0 +1,163 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Benchmarks of all {@link MyList} operations.
+ *  Every operation is measured on our implementations and on
+ *  {@link java.util.ArrayList}, which serves as a baseline.
+ *  Positional inserts are paired with the removal of the same position,
+ *  so that the size of the list does not drift during an iteration.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MyListBenchmark {
+    /**
+     * The number of precomputed random indexes, must be a power of two.
+     */
+    private static final int INDEX_COUNT = 1024;
+
+    @Param({"MyArrayList", "TieredArrayList", "ArrayList"})
+    private String implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private Integer[] elements;
+    private int[] indexes;
+    private int cursor;
+    private MyList<Integer> data;
+
+    /**
+     * Creates an empty list of the implementation with the given name.
+     * @param implementation The name of the implementation.
+     * @return An empty list.
+     * @param <E> The type of data that will be stored in the list.
+     */
+    static <E> MyList<E> newList(String implementation){
+        switch (implementation) {
+            case "MyArrayList":
+                return new MyArrayList<>();
+            case "TieredArrayList":
+                return new TieredArrayList<>();
+            case "ArrayList":
+                return new ArrayListAdapter<>();
+            default:
+                throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepareElements(){
+        elements = new Integer[size];
+        for (int i = 0; i < size; i++)
+            elements[i] = i;
+        Random random = new Random(42);
+        indexes = new int[INDEX_COUNT];
+        for (int i = 0; i < INDEX_COUNT; i++)
+            indexes[i] = random.nextInt(size);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareData(){
+        data = newList(implementation);
+        data.addAll(elements);
+    }
+
+    private int nextIndex(){
+        return indexes[cursor++ & (INDEX_COUNT - 1)];
+    }
+
+    /**
+     * Fills an empty list one element at a time, including every {@code grow()}.
+     */
+    @Benchmark
+    public MyList<Integer> add(){
+        MyList<Integer> list = newList(implementation);
+        for (Integer element : elements)
+            list.add(element);
+        return list;
+    }
+
+    /**
+     * Fills an empty list with a single call.
+     */
+    @Benchmark
+    public MyList<Integer> addAll(){
+        MyList<Integer> list = newList(implementation);
+        list.addAll(elements);
+        return list;
+    }
+
+    @Benchmark
+    public Integer addAndRemoveHead(){
+        data.add(0, size);
+        return data.remove(0);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveMiddle(){
+        int index = data.size() / 2;
+        data.add(index, size);
+        return data.remove(index);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveTail(){
+        int index = data.size();
+        data.add(index, size);
+        return data.remove(index);
+    }
+
+    @Benchmark
+    public Integer get(){
+        return data.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer set(){
+        return data.set(nextIndex(), size);
+    }
+
+    /**
+     * Clears a full list, the list is refilled before every invocation.
+     */
+    @Benchmark
+    public void clear(ClearState state){
+        state.data.clear();
+    }
+
+    /**
+     * Holds a list that is filled again before each call to {@link #clear(ClearState)}.
+     */
+    @State(Scope.Thread)
+    public static class ClearState {
+        private MyList<Integer> data;
+
+        @Setup(Level.Invocation)
+        public void prepareData(MyListBenchmark benchmark){
+            if (data == null)
+                data = newList(benchmark.implementation);
+            data.addAll(benchmark.elements);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Membership tests, range scans and random reads of sorted identifiers
+ *  kept boxed in a {@link SortedArrayList} and packed in a {@link PackedSortedList}.
+ *  The identifiers grow by 1 to 16, a range scan sums about a thousand of them.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class PackedSortedListBenchmark {
+    /**
+     * The number of precomputed random numbers, must be a power of two.
+     */
+    private static final int RANDOM_COUNT = 4096;
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private SortedArrayList<Long> boxed;
+    private PackedSortedList<Long> packed;
+    private long[] probes;
+    private int[] indexes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareData(){
+        Random random = new Random(42);
+        long[] ids = new long[size];
+        for (int i = 1; i < size; i++)
+            ids[i] = ids[i - 1] + 1 + random.nextInt(16);
+        boxed = new SortedArrayList<>(Comparator.naturalOrder(), size);
+        for (long id : ids)
+            boxed.add(id);
+        packed = PackedSortedList.ofLongs(ids.clone());
+        probes = new long[RANDOM_COUNT];
+        indexes = new int[RANDOM_COUNT];
+        for (int i = 0; i < RANDOM_COUNT; i++) {
+            probes[i] = (long) (random.nextDouble() * ids[size - 1]);
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public boolean containsBoxed(){
+        return boxed.contains(probes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsPacked(){
+        return packed.contains(probes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public long rangeBoxed(){
+        long from = probes[cursor++ & (RANDOM_COUNT - 1)];
+        MyArrayList<Long> range = boxed.range(from, from + 8500);
+        long sum = 0;
+        for (int i = 0; i < range.size(); i++)
+            sum += range.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long rangePacked(){
+        long from = probes[cursor++ & (RANDOM_COUNT - 1)];
+        PrimitiveIterator.OfLong range = packed.range(from, from + 8500);
+        long sum = 0;
+        while (range.hasNext())
+            sum += range.nextLong();
+        return sum;
+    }
+
+    @Benchmark
+    public long getBoxed(){
+        return boxed.get(indexes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public long getPacked(){
+        return packed.getLong(indexes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+}
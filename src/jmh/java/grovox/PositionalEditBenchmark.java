@@ -0,0 +1,68 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Inserts and removes elements at random positions, with sizes chosen
+ *  densely enough to show where {@link TieredArrayList} gets faster
+ *  than {@link MyArrayList}. Every insert is followed by a removal at
+ *  another random position, so the size stays the same.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class PositionalEditBenchmark {
+    /**
+     * The number of precomputed random numbers, must be a power of two.
+     */
+    private static final int RANDOM_COUNT = 4096;
+
+    @Param({"MyArrayList", "TieredArrayList"})
+    private String implementation;
+
+    @Param({"100", "300", "1000", "3000", "10000", "30000", "100000", "1000000"})
+    private int size;
+
+    private MyList<Integer> data;
+    private double[] randoms;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareData(){
+        data = MyListBenchmark.newList(implementation);
+        for (int i = 0; i < size; i++)
+            data.add(i);
+        Random random = new Random(42);
+        randoms = new double[RANDOM_COUNT];
+        for (int i = 0; i < RANDOM_COUNT; i++)
+            randoms[i] = random.nextDouble();
+    }
+
+    private int nextIndex(int bound){
+        return (int) (randoms[cursor++ & (RANDOM_COUNT - 1)] * bound);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveAtRandom(){
+        data.add(nextIndex(size + 1), size);
+        return data.remove(nextIndex(size + 1));
+    }
+}
@@ -0,0 +1,113 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Benchmarks of the scalar {@link IntroSort} against the {@link VectorSort}
+ *  on arrays of primitives. The skewed order draws most of the values from
+ *  a small part of the range, like sizes or latencies do.
+ *  The arrays are filled again before every invocation.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class PrimitiveSortBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"random", "skewed", "fewValues", "ascending"})
+    private String order;
+
+    private int[] intValues;
+    private long[] longValues;
+    private double[] doubleValues;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+
+    @Setup(Level.Trial)
+    public void prepareValues(){
+        Random random = new Random(42);
+        intValues = new int[size];
+        longValues = new long[size];
+        doubleValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            double value;
+            switch (order) {
+                case "random": value = random.nextDouble(); break;
+                case "skewed": value = Math.pow(random.nextDouble(), 8); break;
+                case "fewValues": value = random.nextInt(16) / 16.0; break;
+                case "ascending": value = (double) i / size; break;
+                default: throw new IllegalArgumentException("Unknown order " + order);
+            }
+            intValues[i] = (int) (value * Integer.MAX_VALUE);
+            longValues[i] = (long) (value * Long.MAX_VALUE);
+            doubleValues[i] = value;
+        }
+        ints = new int[size];
+        longs = new long[size];
+        doubles = new double[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareData(){
+        System.arraycopy(intValues, 0, ints, 0, size);
+        System.arraycopy(longValues, 0, longs, 0, size);
+        System.arraycopy(doubleValues, 0, doubles, 0, size);
+    }
+
+    @Benchmark
+    public int[] scalarInts(){
+        IntroSort.sort(ints, 0, size);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] vectorInts(){
+        VectorSort.sort(ints, 0, size);
+        return ints;
+    }
+
+    @Benchmark
+    public long[] scalarLongs(){
+        IntroSort.sort(longs, 0, size);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] vectorLongs(){
+        VectorSort.sort(longs, 0, size);
+        return longs;
+    }
+
+    @Benchmark
+    public double[] scalarDoubles(){
+        IntroSort.sort(doubles, 0, size);
+        return doubles;
+    }
+
+    @Benchmark
+    public double[] vectorDoubles(){
+        VectorSort.sort(doubles, 0, size);
+        return doubles;
+    }
+}
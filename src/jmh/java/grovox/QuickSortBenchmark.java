@@ -0,0 +1,112 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Benchmarks of {@link QuickSort} on data with different orders.
+ *  The data is filled again before every invocation, so each one sorts
+ *  the same unsorted sequence.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class QuickSortBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"random", "ascending", "descending", "fewValues", "almostSorted"})
+    private String order;
+
+    private int[] values;
+    private Integer[] elements;
+    private MyArrayList<Integer> data;
+    private MyIntArrayList ints;
+
+    @Setup(Level.Trial)
+    public void prepareValues(){
+        Random random = new Random(42);
+        values = new int[size];
+        elements = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            switch (order) {
+                case "random": values[i] = random.nextInt(); break;
+                case "ascending": values[i] = i; break;
+                case "descending": values[i] = size - i; break;
+                case "fewValues": values[i] = random.nextInt(16); break;
+                case "almostSorted": values[i] = random.nextInt(100) == 0 ? random.nextInt(size) : i; break;
+                default: throw new IllegalArgumentException("Unknown order " + order);
+            }
+            elements[i] = values[i];
+        }
+        data = new MyArrayList<>();
+        ints = new MyIntArrayList();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareData(){
+        data.clear();
+        data.addAll(elements);
+        ints.clear();
+        ints.addAll(values);
+    }
+
+    @Benchmark
+    public boolean sortWithComparator(){
+        return QuickSort.runSorting(data, Comparator.<Integer>naturalOrder());
+    }
+
+    @Benchmark
+    public boolean sortComparable(){
+        return QuickSort.runSorting(data);
+    }
+
+    @Benchmark
+    public boolean sortParallel(){
+        return QuickSort.runParallelSorting(data);
+    }
+
+    @Benchmark
+    public boolean sortStable(){
+        return QuickSort.runStableSorting(data);
+    }
+
+    @Benchmark
+    public boolean sortByKey(){
+        return QuickSort.runSortingByIntKey(data, value -> value);
+    }
+
+    @Benchmark
+    public boolean sortWithDerivedKey(){
+        return QuickSort.runSorting(data, Comparator.comparing((Integer value) -> Integer.toString(value)));
+    }
+
+    @Benchmark
+    public boolean sortByCachedKey(){
+        return QuickSort.runSortingBy(data, (Integer value) -> Integer.toString(value));
+    }
+
+    @Benchmark
+    public boolean sortInts(){
+        return QuickSort.runSorting(ints);
+    }
+}
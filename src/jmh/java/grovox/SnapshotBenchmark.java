@@ -0,0 +1,84 @@
+package grovox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Changes one element at a random position and keeps the previous version
+ *  of the list, the way an undo history or a reader that must not see
+ *  the change does. {@link MyArrayList} has to copy itself to keep
+ *  a version, {@link PersistentList} takes a snapshot and copies a path.
+ * @author Max Artemov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    /**
+     * The number of precomputed random numbers, must be a power of two.
+     */
+    private static final int RANDOM_COUNT = 4096;
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private MyArrayList<Integer> array;
+    private PersistentList<Integer> persistent;
+    private int[] indexes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareData(){
+        array = new MyArrayList<>();
+        persistent = new PersistentList<>();
+        for (int i = 0; i < size; i++) {
+            array.add(i);
+            persistent.add(i);
+        }
+        Random random = new Random(42);
+        indexes = new int[RANDOM_COUNT];
+        for (int i = 0; i < RANDOM_COUNT; i++)
+            indexes[i] = random.nextInt(size);
+    }
+
+    @Benchmark
+    public MyList<Integer> copyArrayList(){
+        MyArrayList<Integer> version = new MyArrayList<>(size);
+        version.addAll(array);
+        array.set(indexes[cursor++ & (RANDOM_COUNT - 1)], cursor);
+        return version;
+    }
+
+    @Benchmark
+    public MyList<Integer> snapshotPersistentList(){
+        PersistentList<Integer> version = persistent.snapshot();
+        persistent.set(indexes[cursor++ & (RANDOM_COUNT - 1)], cursor);
+        return version;
+    }
+
+    @Benchmark
+    public int getArrayList(){
+        return array.get(indexes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int getPersistentList(){
+        return persistent.get(indexes[cursor++ & (RANDOM_COUNT - 1)]);
+    }
+}
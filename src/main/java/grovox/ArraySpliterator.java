@@ -0,0 +1,70 @@
+package grovox;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ *  A spliterator over a range of an array, used by {@link MyArrayList}.
+ *  It reads the array directly, without the index checks of {@code get},
+ *  and splits the range into two halves, so parallel streams
+ *  give every thread the same amount of elements.
+ *  The range is fixed when the spliterator is created.
+ * @param <E> The type of the elements.
+ * @author Max Artemov
+ */
+final class ArraySpliterator<E> implements Spliterator<E> {
+    private final Object[] elementData;
+    /**
+     * The index of the next element.
+     */
+    private int index;
+    /**
+     * The index after the last element.
+     */
+    private final int end;
+
+    ArraySpliterator(Object[] elementData, int index, int end) {
+        this.elementData = elementData;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index >= end)
+            return false;
+        action.accept((E) elementData[index++]);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super E> action) {
+        Object[] elementData = this.elementData;
+        int end = this.end;
+        for (int i = index; i < end; i++)
+            action.accept((E) elementData[i]);
+        index = end;
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+        int middle = (index + end) >>> 1;
+        if (middle <= index)
+            return null;
+        ArraySpliterator<E> prefix = new ArraySpliterator<>(elementData, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,297 @@
+package grovox;
+
+import java.nio.ByteBuffer;
+
+/**
+ *  The base of the {@link MyList} implementations that keep their elements
+ *  in a {@link ByteBuffer}. Every element is encoded by a {@link Codec} into
+ *  the same number of bytes and the elements follow each other starting
+ *  from a fixed offset, the bytes before it are left to the subclass.
+ *  The subclasses decide where the buffer comes from and how it grows.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+abstract class BufferList<E> implements MyList<E>, AutoCloseable {
+    /**
+     * Encodes and decodes the elements.
+     */
+    final Codec<E> codec;
+    /**
+     * The number of bytes that one element takes.
+     */
+    final int width;
+    /**
+     * The index of the first byte of the first element.
+     */
+    final int offset;
+    /**
+     * The largest number of elements that fit into a buffer.
+     */
+    final int maxCapacity;
+    /**
+     * The buffer in which we store the elements, null after closing.
+     */
+    ByteBuffer buffer;
+    /**
+     * A value that indicates the number of elements.
+     */
+    int size;
+
+    /**
+     * @param codec Encodes and decodes the elements.
+     * @param offset The index of the first byte of the first element.
+     * @throws IllegalArgumentException If the width of the codec is not positive.
+     */
+    BufferList(Codec<E> codec, int offset) {
+        if (codec.width() <= 0)
+            throw new IllegalArgumentException("Codec width must be positive: " + codec.width());
+        this.codec = codec;
+        this.width = codec.width();
+        this.offset = offset;
+        this.maxCapacity = (Integer.MAX_VALUE - offset) / width;
+    }
+
+    /**
+     * Replaces the buffer by a larger one that keeps all stored elements.
+     * @param newCapacity The number of elements that must fit into the new buffer.
+     */
+    abstract void resize(int newCapacity);
+
+    /**
+     * Drops the buffer, after that {@link #isClosed()} is true.
+     * Calling this method again does nothing. It throws no checked exceptions,
+     * so the lists can be closed by try-with-resources without a catch.
+     */
+    @Override
+    public abstract void close();
+
+    /**
+     * Called after every change of the size, so that the subclass can store it.
+     */
+    void sizeChanged(){
+    }
+
+    /**
+     * Adds an element to the end of the buffer,
+     * if there is not enough space in the buffer,
+     * then the {@code grow(int minCapacity)} method is run to increase it.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(E element) {
+        ensureOpen();
+        if (size == capacity())
+            grow(size + 1);
+        codec.write(buffer, position(size), element);
+        size++;
+        sizeChanged();
+        return true;
+    }
+
+    /**
+     * Adds an element to the specified location, moving the bytes
+     * of the following elements by one element in one block.
+     * @param index The place where the element should be inserted.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        ensureOpen();
+        checkAddIndex(index);
+        if (size == capacity())
+            grow(size + 1);
+        int position = position(index);
+        buffer.put(position + width, buffer, position, (size - index) * width);
+        codec.write(buffer, position, element);
+        size++;
+        sizeChanged();
+        return true;
+    }
+
+    /**
+     * Adds an array of elements to the end of the buffer,
+     * growing the buffer at most once.
+     * @param elements An array of objects to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        ensureOpen();
+        if (elements.length == 0)
+            return false;
+        if (elements.length > capacity() - size)
+            grow(size + elements.length);
+        for (E element : elements) {
+            codec.write(buffer, position(size), element);
+            size++;
+        }
+        sizeChanged();
+        return true;
+    }
+
+    /**
+     *  Removes the specified element, moving the bytes
+     *  of the following elements back by one element in one block.
+     * @param index The place where the element should be deleted.
+     * @return Deleted Item.
+     */
+    @Override
+    public E remove(int index) {
+        ensureOpen();
+        checkModifierIndex(index);
+        int position = position(index);
+        E result = codec.read(buffer, position);
+        buffer.put(position, buffer, position + width, (size - index - 1) * width);
+        size--;
+        sizeChanged();
+        return result;
+    }
+
+    /**
+     * Removes all the elements, the buffer is kept for new ones.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+        sizeChanged();
+    }
+
+    /**
+     *  Decodes and returns the specified element.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public E get(int index) {
+        ensureOpen();
+        checkModifierIndex(index);
+        return codec.read(buffer, position(index));
+    }
+
+    /**
+     * Replaces the element with a new one.
+     * @param index Indicates the element to be replaced.
+     * @param element The element that needs to be replaced.
+     * @return The element that has been replaced.
+     */
+    @Override
+    public E set(int index, E element) {
+        ensureOpen();
+        checkModifierIndex(index);
+        int position = position(index);
+        E oldValue = codec.read(buffer, position);
+        codec.write(buffer, position, element);
+        return oldValue;
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Indicates whether the list is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Whether the list has been closed.
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    /**
+     * Swaps the bytes of two elements without decoding them.
+     * It is used by {@link QuickSort} and does not check the indexes.
+     * @param i The index of the first element.
+     * @param j The index of the second element.
+     */
+    void swap(int i, int j){
+        int first = position(i);
+        int second = position(j);
+        int end = first + width;
+        while (end - first >= Long.BYTES) {
+            long temp = buffer.getLong(first);
+            buffer.putLong(first, buffer.getLong(second));
+            buffer.putLong(second, temp);
+            first += Long.BYTES;
+            second += Long.BYTES;
+        }
+        while (first < end) {
+            byte temp = buffer.get(first);
+            buffer.put(first, buffer.get(second));
+            buffer.put(second, temp);
+            first++;
+            second++;
+        }
+    }
+
+    /**
+     * @param index The index of an element.
+     * @return The index of the first byte of the element in the buffer.
+     */
+    final int position(int index){
+        return offset + index * width;
+    }
+
+    /**
+     * @return The number of elements that fit into the current buffer.
+     */
+    final int capacity(){
+        return (buffer.capacity() - offset) / width;
+    }
+
+    /**
+     * Increases the buffer by one and a half times, or up to
+     * {@code minCapacity} if that is not enough.
+     * @param minCapacity A value indicating the required number of elements.
+     * @throws OutOfMemoryError If the required size is larger than a buffer can hold.
+     */
+    final void grow(int minCapacity){
+        if (minCapacity < 0 || minCapacity > maxCapacity)
+            throw new OutOfMemoryError("Required capacity " + size + " + " + (minCapacity - size) + " is too large");
+        int oldCapacity = capacity();
+        int newCapacity = oldCapacity + Math.max(minCapacity - oldCapacity, Math.max(oldCapacity >> 1, 10));
+        if (newCapacity < 0 || newCapacity > maxCapacity)
+            newCapacity = maxCapacity;
+        resize(newCapacity);
+    }
+
+    /**
+     * @throws IllegalStateException If the list has been closed.
+     */
+    final void ensureOpen(){
+        if (buffer == null)
+            throw new IllegalStateException("The list is closed");
+    }
+
+    /**
+     *  Checks whether it is possible to add an element to this position.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If the position is outside the list.
+     */
+    private void checkAddIndex(int index){
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    /**
+     *  Checking for the presence of elements in the list.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If there is no element at this position.
+     */
+    private void checkModifierIndex(int index){
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+}
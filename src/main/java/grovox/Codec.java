@@ -0,0 +1,96 @@
+package grovox;
+
+import java.nio.ByteBuffer;
+
+/**
+ *  Describes how elements are stored as bytes by the lists that keep
+ *  their data outside of the heap. Every element takes the same number
+ *  of bytes, so the element with index {@code i} starts at byte {@code i * width()}
+ *  of the area where a list keeps its elements. That area may start after a header,
+ *  as in {@link MappedList}, the offset passed to a codec is the absolute one.
+ *  Codecs must not change the position or the limit of the buffer.
+ * @param <E> The type of data that is encoded.
+ * @author Max Artemov
+ */
+public interface Codec<E> {
+    /**
+     * Stores {@link Integer} values in four bytes, null is not supported.
+     */
+    Codec<Integer> INT = new Codec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Stores {@link Long} values in eight bytes, null is not supported.
+     */
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long element) {
+            buffer.putLong(offset, element);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Stores {@link Double} values in eight bytes, null is not supported.
+     */
+    Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double element) {
+            buffer.putDouble(offset, element);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * @return The number of bytes that one element takes.
+     */
+    int width();
+
+    /**
+     * Writes the element to the buffer.
+     * @param buffer The buffer to write to.
+     * @param offset The index of the first byte of the element.
+     * @param element The element to write.
+     */
+    void write(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Reads an element from the buffer.
+     * @param buffer The buffer to read from.
+     * @param offset The index of the first byte of the element.
+     * @return The element that was read.
+     */
+    E read(ByteBuffer buffer, int offset);
+}
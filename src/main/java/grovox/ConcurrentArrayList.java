@@ -0,0 +1,308 @@
+package grovox;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *  This is a thread-safe implementation of the {@link MyList} interface
+ *  for data that is only appended, such as the input of several threads.
+ *  The elements are stored in segments, each twice as large as the previous one,
+ *  so the list grows by adding a segment and never copies the stored elements.
+ *  A thread that appends reserves its slots by a compare-and-set on the counter
+ *  of reserved slots, creates the missing segment with a compare-and-set if no
+ *  other thread has done it yet and writes the elements. Then it moves the size
+ *  over all slots that are written by now, including the slots of other threads,
+ *  so {@code size()} and {@code get()} only see written elements and no thread
+ *  ever waits for another one. Reading never waits and never takes a lock.
+ *  To sort the data, take a {@link #snapshot()} and sort it,
+ *  the writers are not stopped for that.
+ *  Inserting and removing elements by index is not supported.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class ConcurrentArrayList<E> implements MyList<E> {
+    /**
+     * The binary logarithm of the length of the first segment.
+     */
+    private static final int FIRST_SEGMENT_SHIFT = 4;
+    /**
+     * The number of segments that is enough for {@code Integer.MAX_VALUE} elements.
+     */
+    private static final int MAX_SEGMENTS = 32 - FIRST_SEGMENT_SHIFT;
+    /**
+     * Stores the maximum number of elements, the next segment
+     * would have to be longer than an array can be.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 15;
+    /**
+     * Gives volatile access to the slots of a segment.
+     */
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    /**
+     * Is stored in place of null elements, so that an empty slot
+     * always means that its element has not been written yet.
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * The current contents of the list. {@code clear()} replaces it with
+     * a new one, so the appends that were running at that time get into the old one.
+     */
+    private volatile Contents contents = new Contents();
+
+    /**
+     * The segments and the counters of one generation of the list.
+     */
+    private static final class Contents {
+        private final AtomicReferenceArray<Object[]> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+        /**
+         * The number of slots taken by the appends.
+         */
+        private final AtomicInteger reserved = new AtomicInteger();
+        /**
+         * The number of slots whose elements are written and visible.
+         */
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    /**
+     * Appends an element. Several threads may do this at the same time.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(E element) {
+        Contents contents = this.contents;
+        int index = reserve(contents, 1);
+        SLOTS.setVolatile(segment(contents, index), slot(index), mask(element));
+        publish(contents);
+        return true;
+    }
+
+    /**
+     * Not supported, the list only appends elements.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        throw new UnsupportedOperationException("ConcurrentArrayList only appends elements");
+    }
+
+    /**
+     * Appends an array of elements. The slots for all of them are
+     * reserved at once, so they stay together in the list.
+     * @param elements An array of objects to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        if (elements.length == 0)
+            return false;
+        Contents contents = this.contents;
+        int first = reserve(contents, elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            int index = first + i;
+            SLOTS.setVolatile(segment(contents, index), slot(index), mask(elements[i]));
+        }
+        publish(contents);
+        return true;
+    }
+
+    /**
+     * Not supported, the list only appends elements.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException("ConcurrentArrayList only appends elements");
+    }
+
+    /**
+     * Removes all the elements. The appends that run at the same time
+     * may get into the list before it is cleared or after it.
+     */
+    @Override
+    public void clear() {
+        contents = new Contents();
+    }
+
+    /**
+     *  Returns the specified element without waiting for the writers.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public E get(int index) {
+        Contents contents = this.contents;
+        checkIndex(index, contents.size.get());
+        return unmask(SLOTS.getAcquire(contents.segments.get(segmentIndex(index)), slot(index)));
+    }
+
+    /**
+     * Replaces the element with a new one.
+     * @param index Indicates the element to be replaced.
+     * @param element The element that needs to be replaced.
+     * @return The element that has been replaced.
+     */
+    @Override
+    public E set(int index, E element) {
+        Contents contents = this.contents;
+        checkIndex(index, contents.size.get());
+        return unmask(SLOTS.getAndSet(contents.segments.get(segmentIndex(index)), slot(index), mask(element)));
+    }
+
+    /**
+     * @return The number of elements that are visible to readers.
+     */
+    @Override
+    public int size() {
+        return contents.size.get();
+    }
+
+    /**
+     * @return Indicates whether the list is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return contents.size.get() == 0;
+    }
+
+    /**
+     * Copies the elements that are visible at the moment of the call
+     * into a new {@link MyArrayList}. The writers are not stopped,
+     * so the copy can be sorted with {@link QuickSort} while they go on.
+     * @return A list with the same elements in the same order.
+     */
+    public MyArrayList<E> snapshot() {
+        Contents contents = this.contents;
+        int size = contents.size.get();
+        Object[] elementData = new Object[size];
+        int copied = 0;
+        for (int k = 0; copied < size; k++) {
+            Object[] segment = contents.segments.get(k);
+            int length = Math.min(segment.length, size - copied);
+            System.arraycopy(segment, 0, elementData, copied, length);
+            copied += length;
+        }
+        for (int i = 0; i < size; i++)
+            if (elementData[i] == NULL)
+                elementData[i] = null;
+        return new MyArrayList<>(elementData, size);
+    }
+
+    /**
+     * Reserves slots by a compare-and-set on the counter of reserved slots.
+     * @param contents The contents to which the elements are added.
+     * @param count The number of slots.
+     * @return The index of the first reserved slot.
+     * @throws OutOfMemoryError If the list cannot hold that many elements.
+     */
+    private static int reserve(Contents contents, int count){
+        AtomicInteger reserved = contents.reserved;
+        int first;
+        do {
+            first = reserved.get();
+            if (count > MAX_SIZE - first)
+                throw new OutOfMemoryError("Required length " + first + " + " + count + " is too large");
+        } while (!reserved.compareAndSet(first, first + count));
+        return first;
+    }
+
+    /**
+     * Moves the size over all written slots that follow it. A slot that is not written
+     * yet stops the move, the thread that writes it moves the size further itself.
+     * Both the writes of the slots and the size are volatile, so either that thread sees
+     * the new size or this one sees its slot, and no written slot is left behind.
+     * @param contents The contents to which the elements are added.
+     */
+    private static void publish(Contents contents){
+        AtomicInteger size = contents.size;
+        int current = size.get();
+        while (true) {
+            int end = current;
+            while (end < contents.reserved.get() && isWritten(contents, end))
+                end++;
+            if (end == current || size.compareAndSet(current, end))
+                return;
+            current = size.get();
+        }
+    }
+
+    /**
+     * @param contents The contents with the segments.
+     * @param index The index of a reserved slot.
+     * @return Whether the element of the slot has been written.
+     */
+    private static boolean isWritten(Contents contents, int index){
+        Object[] segment = contents.segments.get(segmentIndex(index));
+        return segment != null && SLOTS.getVolatile(segment, slot(index)) != null;
+    }
+
+    /**
+     * @param element An element of the list.
+     * @return The value to store in the slot.
+     */
+    private static Object mask(Object element){
+        return element == null ? NULL : element;
+    }
+
+    /**
+     * @param value The value of a written slot.
+     * @return The element of the list.
+     * @param <E> The type of the elements.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E unmask(Object value){
+        return value == NULL ? null : (E) value;
+    }
+
+    /**
+     * Returns the segment of the slot, creating it if it is missing.
+     * If several threads create the same segment, the first one wins
+     * and the others take its segment.
+     * @param contents The contents with the segments.
+     * @param index The index of the slot.
+     * @return The segment that holds the slot.
+     */
+    private static Object[] segment(Contents contents, int index){
+        int k = segmentIndex(index);
+        Object[] segment = contents.segments.get(k);
+        if (segment == null) {
+            Object[] created = new Object[1 << (FIRST_SEGMENT_SHIFT + k)];
+            segment = contents.segments.compareAndExchange(k, null, created);
+            if (segment == null)
+                segment = created;
+        }
+        return segment;
+    }
+
+    /**
+     * Segment {@code k} holds {@code 16 << k} slots and starts from slot {@code 16 * (2^k - 1)}.
+     * @param index The index of a slot.
+     * @return The number of the segment with the slot.
+     */
+    private static int segmentIndex(int index){
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SEGMENT_SHIFT) + 1);
+    }
+
+    /**
+     * @param index The index of a slot.
+     * @return The position of the slot in its segment.
+     */
+    private static int slot(int index){
+        return index + (1 << FIRST_SEGMENT_SHIFT) - (1 << (FIRST_SEGMENT_SHIFT + segmentIndex(index)));
+    }
+
+    /**
+     *  Checking for the presence of elements in the list.
+     * @param index The position to check.
+     * @param size The number of visible elements.
+     * @throws IndexOutOfBoundsException If there is no element at this position.
+     */
+    private static void checkIndex(int index, int size){
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+}
@@ -0,0 +1,367 @@
+package grovox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ *  Sorts more elements than fit into the heap. The input is read into a
+ *  {@link MyArrayList} until the memory budget is reached, the list is sorted by
+ *  {@link QuickSort} and written to a temporary file as a sorted run, and so on
+ *  until the input ends. Then the runs are merged, at most {@code fanIn} at once:
+ *  while there are more runs, groups of them are merged into longer runs,
+ *  the last merge is done lazily while the output is read.
+ *  If the whole input fits into the budget, nothing is written to disk.
+ *  Like {@code QuickSort}, the sorting is not stable.
+ * @param <E> The type of data to be sorted.
+ * @author Max Artemov
+ */
+public final class ExternalSort<E> {
+    /**
+     * The default number of elements that are sorted in memory at once.
+     */
+    public static final int DEFAULT_MEMORY_BUDGET = 1 << 20;
+    /**
+     * The default number of runs that are merged at once.
+     */
+    public static final int DEFAULT_FAN_IN = 64;
+    /**
+     * The default size in bytes of the buffer of every file that is read or written.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<E> comparator;
+    private final Serializer<E> serializer;
+    private final int memoryBudget;
+    private final int fanIn;
+    private final int bufferSize;
+    private final Path directory;
+
+    /**
+     * Creates a sorting with the default budget, fan-in and buffers,
+     * which keeps its runs in the default temporary directory.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param serializer Writes the elements to the runs and reads them back.
+     */
+    public ExternalSort(Comparator<E> comparator, Serializer<E> serializer) {
+        this(comparator, serializer, DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE,
+                Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a sorting. The heap it needs is about {@code memoryBudget} elements
+     * for the runs and {@code fanIn * bufferSize} bytes for the merge.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param serializer Writes the elements to the runs and reads them back.
+     * @param memoryBudget The number of elements that are sorted in memory at once.
+     * @param fanIn The number of runs that are merged at once, at least two.
+     * @param bufferSize The size in bytes of the buffer of every file that is read or written.
+     * @param directory The directory for the temporary files.
+     * @throws IllegalArgumentException If the budget or the buffer size is not positive
+     * or the fan-in is less than two.
+     */
+    public ExternalSort(Comparator<E> comparator, Serializer<E> serializer,
+                        int memoryBudget, int fanIn, int bufferSize, Path directory) {
+        if (memoryBudget < 1)
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudget);
+        if (fanIn < 2)
+            throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        this.comparator = comparator;
+        this.serializer = serializer;
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.bufferSize = bufferSize;
+        this.directory = directory;
+    }
+
+    /**
+     * Sorts the elements of the stream.
+     * @param input The elements to sort, the stream is consumed but not closed.
+     * @return The sorted elements, the output must be closed to delete the temporary files.
+     * @throws IOException If a temporary file cannot be written or read.
+     */
+    public Output<E> sort(Stream<? extends E> input) throws IOException {
+        return sort(input.iterator());
+    }
+
+    /**
+     * Sorts the elements of the iterator.
+     * @param input The elements to sort.
+     * @return The sorted elements, the output must be closed to delete the temporary files.
+     * @throws IOException If a temporary file cannot be written or read.
+     */
+    public Output<E> sort(Iterator<? extends E> input) throws IOException {
+        MyArrayList<E> buffer = new MyArrayList<>();
+        Deque<Path> runs = new ArrayDeque<>();
+        try {
+            while (input.hasNext()) {
+                while (input.hasNext() && buffer.size() < memoryBudget)
+                    buffer.add(input.next());
+                QuickSort.runSorting(buffer, comparator);
+                if (runs.isEmpty() && !input.hasNext())
+                    return new Output<>(buffer);
+                runs.add(writeRun(buffer));
+                buffer.clear();
+            }
+            buffer = null;
+            while (runs.size() > fanIn) {
+                List<Path> group = new ArrayList<>(fanIn);
+                for (int i = 0; i < fanIn; i++)
+                    group.add(runs.poll());
+                runs.add(mergeRuns(group));
+            }
+            return new Output<>(openRuns(runs), comparator);
+        } catch (IOException | RuntimeException e) {
+            for (Path run : runs)
+                Files.deleteIfExists(run);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the sorted elements of the buffer to a new temporary file.
+     * @param buffer The sorted elements.
+     * @return The file of the run.
+     * @throws IOException If the file cannot be written.
+     */
+    private Path writeRun(MyArrayList<E> buffer) throws IOException {
+        Path file = Files.createTempFile(directory, "grovox-run", ".tmp");
+        try (DataOutputStream out = openOutput(file)) {
+            out.writeLong(buffer.size());
+            for (E element : buffer)
+                serializer.write(out, element);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Merges the runs into one longer run and deletes them.
+     * @param group The files of the runs.
+     * @return The file of the merged run.
+     * @throws IOException If a file cannot be written or read.
+     */
+    private Path mergeRuns(List<Path> group) throws IOException {
+        Path file = Files.createTempFile(directory, "grovox-run", ".tmp");
+        try (Output<E> merged = new Output<>(openRuns(group), comparator);
+             DataOutputStream out = openOutput(file)) {
+            long length = 0;
+            for (Run<E> run : merged.runs)
+                if (run.in != null)
+                    length += run.remaining + 1;
+            out.writeLong(length);
+            while (merged.hasNext())
+                serializer.write(out, merged.next());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            for (Path run : group)
+                Files.deleteIfExists(run);
+            throw e;
+        }
+        return file;
+    }
+
+    private DataOutputStream openOutput(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), bufferSize));
+    }
+
+    /**
+     * Opens the runs and reads their first elements. The files are deleted when the runs are closed.
+     * @param files The files of the runs.
+     * @return The runs that are not empty.
+     * @throws IOException If a file cannot be read.
+     */
+    private List<Run<E>> openRuns(Iterable<Path> files) throws IOException {
+        List<Run<E>> runs = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                Run<E> run = new Run<>(file, serializer,
+                        new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize)));
+                runs.add(run);
+                run.advance();
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Run<E> run : runs)
+                run.close();
+            throw e;
+        }
+        return runs;
+    }
+
+    /**
+     * One sorted run that is read from its file, element by element.
+     * @param <E> The type of data in the run.
+     */
+    private static final class Run<E> {
+        private final Path file;
+        private final Serializer<E> serializer;
+        private DataInputStream in;
+        /**
+         * The number of elements that have not been read yet, or -1 before the length is read.
+         */
+        private long remaining = -1;
+        /**
+         * The element that was read last and has not been passed on yet.
+         */
+        private E head;
+
+        Run(Path file, Serializer<E> serializer, DataInputStream in) {
+            this.file = file;
+            this.serializer = serializer;
+            this.in = in;
+        }
+
+        /**
+         * Reads the next element into {@code head}, or closes the run at its end.
+         * @return Whether there was an element.
+         * @throws IOException If the file cannot be read.
+         */
+        boolean advance() throws IOException {
+            if (remaining < 0)
+                remaining = in.readLong();
+            if (remaining == 0) {
+                close();
+                return false;
+            }
+            remaining--;
+            head = serializer.read(in);
+            return true;
+        }
+
+        /**
+         * Closes and deletes the file.
+         * @throws IOException If the file cannot be closed or deleted.
+         */
+        void close() throws IOException {
+            head = null;
+            if (in != null) {
+                try {
+                    in.close();
+                } finally {
+                    in = null;
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * The sorted elements. They are either kept in memory or merged from the runs
+     * while they are read, so the output can only be read once.
+     * Closing the output deletes the files of the runs that have not been read to the end.
+     * @param <E> The type of data that has been sorted.
+     */
+    public static final class Output<E> implements Iterator<E>, AutoCloseable {
+        /**
+         * The sorted elements if they fit into the memory budget, otherwise null.
+         */
+        private MyArrayList<E> memory;
+        private int index;
+        /**
+         * All the runs that are merged, for closing them.
+         */
+        private final List<Run<E>> runs;
+        /**
+         * The runs that still have elements, the one with the smallest next element first.
+         */
+        private final PriorityQueue<Run<E>> queue;
+
+        private Output(MyArrayList<E> memory) {
+            this.memory = memory;
+            this.runs = List.of();
+            this.queue = null;
+        }
+
+        private Output(List<Run<E>> runs, Comparator<E> comparator) {
+            this.runs = runs;
+            this.queue = new PriorityQueue<>(Math.max(runs.size(), 1),
+                    (a, b) -> comparator.compare(a.head, b.head));
+            for (Run<E> run : runs)
+                if (run.in != null)
+                    queue.add(run);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return memory != null ? index < memory.size() : queue != null && !queue.isEmpty();
+        }
+
+        /**
+         * Returns the next element in the sorted order.
+         * @return The next element.
+         * @throws NoSuchElementException If all the elements have been read.
+         * @throws UncheckedIOException If a run cannot be read.
+         */
+        @Override
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            if (memory != null)
+                return memory.get(index++);
+            Run<E> run = queue.poll();
+            E element = run.head;
+            try {
+                if (run.advance())
+                    queue.add(run);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return element;
+        }
+
+        /**
+         * Returns the rest of the elements as a sequential stream,
+         * closing the stream closes the output.
+         * @return The stream of the sorted elements.
+         */
+        public Stream<E> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                    Spliterator.ORDERED), false).onClose(this::close);
+        }
+
+        /**
+         * Releases the sorted elements and deletes the files of all the runs.
+         * @throws UncheckedIOException If a file cannot be closed or deleted.
+         */
+        @Override
+        public void close() {
+            memory = null;
+            if (queue != null)
+                queue.clear();
+            IOException failure = null;
+            for (Run<E> run : runs) {
+                try {
+                    run.close();
+                } catch (IOException e) {
+                    if (failure == null)
+                        failure = e;
+                    else
+                        failure.addSuppressed(e);
+                }
+            }
+            if (failure != null)
+                throw new UncheckedIOException(failure);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package grovox;
+
+/**
+ *  Decides how much the array of a {@link MyArrayList} grows when it is full
+ *  and whether it shrinks after elements have been removed.
+ *  The policies are stateless and may be shared by any number of lists.
+ * @author Max Artemov
+ */
+public interface GrowthPolicy {
+    /**
+     * Grows the array by half of its length and never shrinks it.
+     */
+    GrowthPolicy DEFAULT = geometric(1.5);
+
+    /**
+     * Returns the new length of a full array.
+     * The list uses at least {@code minCapacity} even if a smaller value is returned,
+     * and at most the maximum array length if a larger one is possible.
+     * @param capacity The current length of the array.
+     * @param minCapacity The length that is required to store the new elements.
+     * @return The new length of the array.
+     */
+    int grow(int capacity, int minCapacity);
+
+    /**
+     * Returns the length of the first array of a list that has none yet.
+     * By default the policy grows an empty array that must hold
+     * at least the default capacity of the list.
+     * @param minCapacity The length that is required to store the new elements.
+     * @param defaultCapacity The length that the list takes when nothing else is asked for.
+     * @return The length of the first array.
+     */
+    default int initialCapacity(int minCapacity, int defaultCapacity){
+        return grow(0, Math.max(defaultCapacity, minCapacity));
+    }
+
+    /**
+     * Called after elements have been removed. By default the array never shrinks.
+     * @param capacity The current length of the array.
+     * @param size The number of elements that are left.
+     * @return The new length of the array, or {@code capacity} to keep the array.
+     */
+    default int shrink(int capacity, int size){
+        return capacity;
+    }
+
+    /**
+     * Returns a policy that multiplies the length of the array by a factor.
+     * @param factor How many times the array grows, must be greater than one.
+     * @return The policy.
+     * @throws IllegalArgumentException if the factor is not greater than one.
+     */
+    static GrowthPolicy geometric(double factor){
+        if (!(factor > 1))
+            throw new IllegalArgumentException("Growth factor " + factor + " must be greater than 1");
+        return (capacity, minCapacity) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minCapacity, (long) (capacity * factor)));
+    }
+
+    /**
+     * Returns a policy that adds the same number of cells to the array every time.
+     * It keeps the peak memory low, but the number of copied elements grows as the square of the size.
+     * @param increment How many cells are added, must be positive.
+     * @return The policy.
+     * @throws IllegalArgumentException if the increment is not positive.
+     */
+    static GrowthPolicy fixed(int increment){
+        if (increment <= 0)
+            throw new IllegalArgumentException("Growth increment " + increment + " must be positive");
+        return (capacity, minCapacity) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minCapacity, (long) capacity + increment));
+    }
+
+    /**
+     * Returns a policy that grows like this one, but never beyond the cap,
+     * not even for the first array of a list.
+     * @param maxCapacity The largest length of the array.
+     * @return The policy.
+     * @throws IllegalArgumentException if the cap is negative.
+     * @throws OutOfMemoryError from {@code grow} and {@code initialCapacity}
+     * if the required length is larger than the cap.
+     */
+    default GrowthPolicy capped(int maxCapacity){
+        if (maxCapacity < 0)
+            throw new IllegalArgumentException("Capacity cap " + maxCapacity + " must not be negative");
+        GrowthPolicy policy = this;
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                if (minCapacity > maxCapacity)
+                    throw new OutOfMemoryError("Required array length " + minCapacity + " is larger than the cap " + maxCapacity);
+                return Math.min(policy.grow(capacity, minCapacity), maxCapacity);
+            }
+
+            @Override
+            public int initialCapacity(int minCapacity, int defaultCapacity) {
+                if (minCapacity > maxCapacity)
+                    throw new OutOfMemoryError("Required array length " + minCapacity + " is larger than the cap " + maxCapacity);
+                return Math.min(policy.initialCapacity(minCapacity, Math.min(defaultCapacity, maxCapacity)), maxCapacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return policy.shrink(capacity, size);
+            }
+        };
+    }
+
+    /**
+     * Returns a policy that grows like this one and shrinks the array to twice the size
+     * once only {@code 1 / ratio} of it is used. As the array is then half full,
+     * it takes doubling or halving of the size to resize it again,
+     * so the lists that grow and shrink around one size do not copy the array every time.
+     * Arrays no longer than the default capacity of a {@link MyArrayList} are never shrunk
+     * this way. While the ratio is not reached, this policy decides whether to shrink.
+     * @param ratio How many times the length of the array must exceed the size, must be greater than two.
+     * @return The policy.
+     * @throws IllegalArgumentException if the ratio is not greater than two.
+     */
+    default GrowthPolicy withAutoShrink(int ratio){
+        if (ratio <= 2)
+            throw new IllegalArgumentException("Shrink ratio " + ratio + " must be greater than 2");
+        GrowthPolicy policy = this;
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return policy.grow(capacity, minCapacity);
+            }
+
+            @Override
+            public int initialCapacity(int minCapacity, int defaultCapacity) {
+                return policy.initialCapacity(minCapacity, defaultCapacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (capacity > MyArrayList.DEFAULT_CAPACITY && size <= capacity / ratio)
+                    return Math.max(size * 2, MyArrayList.DEFAULT_CAPACITY);
+                return policy.shrink(capacity, size);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package grovox;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ *  A spliterator over a range of any {@link MyList}, it reads the elements
+ *  with {@code get} and splits the range into two halves.
+ *  The range is fixed when the spliterator is created.
+ * @param <E> The type of the elements.
+ * @author Max Artemov
+ */
+final class IndexSpliterator<E> implements Spliterator<E> {
+    private final MyList<E> data;
+    /**
+     * The index of the next element.
+     */
+    private int index;
+    /**
+     * The index after the last element.
+     */
+    private final int end;
+
+    IndexSpliterator(MyList<E> data, int index, int end) {
+        this.data = data;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index >= end)
+            return false;
+        action.accept(data.get(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        for (int i = index; i < end; i++)
+            action.accept(data.get(i));
+        index = end;
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+        int middle = (index + end) >>> 1;
+        if (middle <= index)
+            return null;
+        IndexSpliterator<E> prefix = new IndexSpliterator<>(data, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
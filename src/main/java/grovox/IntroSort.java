@@ -0,0 +1,742 @@
+package grovox;
+
+import java.util.Comparator;
+
+/**
+ * The sorting engine behind {@link QuickSort}. It is an introsort:
+ * a quicksort that takes the median of three (or the ninther for large parts)
+ * as the reference element, finishes small parts with an insertion sort and
+ * switches to a heapsort when the recursion gets deeper than {@code 2 * log2(n)},
+ * so the sorting is always O(n log n). Only the smaller part is sorted
+ * recursively and the larger one in a loop, so the stack depth is O(log n).
+ * There is a version for the array of {@link MyArrayList}, for each primitive
+ * array and for any data that can only compare and swap its elements by index.
+ *@author Max Artemov
+ */
+final class IntroSort {
+    /**
+     * Parts of this size and smaller are sorted by insertion.
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+    /**
+     * Parts larger than this take the ninther as the reference element.
+     */
+    static final int NINTHER_THRESHOLD = 128;
+
+    private IntroSort() {
+    }
+
+    /**
+     * Data that is sorted by indexes only, such as a {@link MyList}
+     * that is not an array list of this package.
+     */
+    interface Sortable {
+        /**
+         * Compares two elements.
+         * @param i The index of the first element.
+         * @param j The index of the second element.
+         * @return A negative number, zero or a positive number, like a comparator.
+         */
+        int compare(int i, int j);
+
+        /**
+         * Swaps two elements.
+         * @param i The index of the first element.
+         * @param j The index of the second element.
+         */
+        void swap(int i, int j);
+
+        /**
+         * Called before a part is split into two parts. Does nothing by default,
+         * it lets the metrics find out how deep the splitting goes.
+         * @param depth How many more times the two parts may be split.
+         */
+        default void onSplit(int depth){
+        }
+    }
+
+    /**
+     * Returns the recursion depth after which a part is sorted by heapsort.
+     * @param length The number of elements to sort.
+     * @return Twice the binary logarithm of the length.
+     */
+    static int depthLimit(int length){
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param <E> The type of data to be sorted.
+     */
+    static <E> void sort(Object[] data, int from, int to, Comparator<? super E> comparator){
+        sort(data, from, to, comparator, depthLimit(to - from));
+    }
+
+    /**
+     * Sorts the range with the given depth limit. A part is split by
+     * {@code partOfSort}, the smaller half is sorted recursively and the
+     * larger one in the next turn of the loop.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param depth How many more times the data may be split before heapsort is used.
+     * @param <E> The type of data to be sorted.
+     */
+    static <E> void sort(Object[] data, int from, int to, Comparator<? super E> comparator, int depth){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(data, from, to, comparator);
+                return;
+            }
+            int pivot = partOfSort(data, from, to, comparator);
+            if (pivot - from < to - pivot) {
+                sort(data, from, pivot, comparator, depth);
+                from = pivot + 1;
+            } else {
+                sort(data, pivot + 1, to, comparator, depth);
+                to = pivot;
+            }
+        }
+        insertionSort(data, from, to, comparator);
+    }
+
+    /**
+     * Chooses the reference element, moves it to the beginning of the range
+     * and splits the range so that all elements before the returned index are
+     * not greater than the reference element and all elements after it are not less.
+     * The scans stop on elements equal to the reference element, so many equal
+     * elements are split into halves of the same size.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The final position of the reference element.
+     * @param <E> The type of data to be sorted.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> int partOfSort(Object[] data, int from, int to, Comparator<? super E> comparator){
+        swap(data, from, choosePivot(data, from, to, comparator));
+        E pivot = (E) data[from];
+        int left = from;
+        int right = to;
+
+        while (true) {
+            while (comparator.compare((E) data[++left], pivot) < 0)
+                if (left == to - 1) break;
+            while (comparator.compare(pivot, (E) data[--right]) < 0)
+                if (right == from) break;
+            if (left >= right) break;
+            swap(data, left, right);
+        }
+        swap(data, from, right);
+        return right;
+    }
+
+    /**
+     * Returns the index of the median of three elements or,
+     * for large ranges, of the median of three such medians.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The index of the reference element.
+     * @param <E> The type of data to be sorted.
+     */
+    private static <E> int choosePivot(Object[] data, int from, int to, Comparator<? super E> comparator){
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from > NINTHER_THRESHOLD) {
+            int step = (to - from) >>> 3;
+            int first = medianOfThree(data, from, from + step, from + 2 * step, comparator);
+            middle = medianOfThree(data, middle - step, middle, middle + step, comparator);
+            last = medianOfThree(data, last - 2 * step, last - step, last, comparator);
+            return medianOfThree(data, first, middle, last, comparator);
+        }
+        return medianOfThree(data, from, middle, last, comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> int medianOfThree(Object[] data, int a, int b, int c, Comparator<? super E> comparator){
+        if (comparator.compare((E) data[a], (E) data[b]) < 0) {
+            if (comparator.compare((E) data[b], (E) data[c]) < 0) return b;
+            return comparator.compare((E) data[a], (E) data[c]) < 0 ? c : a;
+        }
+        if (comparator.compare((E) data[a], (E) data[c]) < 0) return a;
+        return comparator.compare((E) data[b], (E) data[c]) < 0 ? c : b;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> void insertionSort(Object[] data, int from, int to, Comparator<? super E> comparator){
+        for (int i = from + 1; i < to; i++) {
+            E element = (E) data[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(element, (E) data[j]) < 0) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = element;
+        }
+    }
+
+    private static <E> void heapSort(Object[] data, int from, int to, Comparator<? super E> comparator){
+        int length = to - from;
+        for (int i = (length >>> 1) - 1; i >= 0; i--)
+            siftDown(data, from, i, length, comparator);
+        for (int end = length - 1; end > 0; end--) {
+            swap(data, from, from + end);
+            siftDown(data, from, 0, end, comparator);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> void siftDown(Object[] data, int offset, int node, int length, Comparator<? super E> comparator){
+        E element = (E) data[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && comparator.compare((E) data[offset + child], (E) data[offset + child + 1]) < 0)
+                child++;
+            if (!(comparator.compare(element, (E) data[offset + child]) < 0))
+                break;
+            data[offset + node] = data[offset + child];
+            node = child;
+        }
+        data[offset + node] = element;
+    }
+
+    private static void swap(Object[] data, int i, int j){
+        Object temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(int[] data, int from, int to){
+        sort(data, from, to, depthLimit(to - from));
+    }
+
+    /**
+     * Sorts the range with the given depth limit. A part is split by
+     * {@code partOfSort}, the smaller half is sorted recursively and the
+     * larger one in the next turn of the loop.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    static void sort(int[] data, int from, int to, int depth){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(data, from, to);
+                return;
+            }
+            int pivot = partOfSort(data, from, to);
+            if (pivot - from < to - pivot) {
+                sort(data, from, pivot, depth);
+                from = pivot + 1;
+            } else {
+                sort(data, pivot + 1, to, depth);
+                to = pivot;
+            }
+        }
+        insertionSort(data, from, to);
+    }
+
+    /**
+     * Chooses the reference element, moves it to the beginning of the range
+     * and splits the range so that all elements before the returned index are
+     * not greater than the reference element and all elements after it are not less.
+     * The scans stop on elements equal to the reference element, so many equal
+     * elements are split into halves of the same size.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The final position of the reference element.
+     */
+    static int partOfSort(int[] data, int from, int to){
+        swap(data, from, choosePivot(data, from, to));
+        int pivot = data[from];
+        int left = from;
+        int right = to;
+
+        while (true) {
+            while (data[++left] < pivot)
+                if (left == to - 1) break;
+            while (pivot < data[--right])
+                if (right == from) break;
+            if (left >= right) break;
+            swap(data, left, right);
+        }
+        swap(data, from, right);
+        return right;
+    }
+
+    /**
+     * Returns the index of the median of three elements or,
+     * for large ranges, of the median of three such medians.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The index of the reference element.
+     */
+    private static int choosePivot(int[] data, int from, int to){
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from > NINTHER_THRESHOLD) {
+            int step = (to - from) >>> 3;
+            int first = medianOfThree(data, from, from + step, from + 2 * step);
+            middle = medianOfThree(data, middle - step, middle, middle + step);
+            last = medianOfThree(data, last - 2 * step, last - step, last);
+            return medianOfThree(data, first, middle, last);
+        }
+        return medianOfThree(data, from, middle, last);
+    }
+
+    private static int medianOfThree(int[] data, int a, int b, int c){
+        if (data[a] < data[b]) {
+            if (data[b] < data[c]) return b;
+            return data[a] < data[c] ? c : a;
+        }
+        if (data[a] < data[c]) return a;
+        return data[b] < data[c] ? c : b;
+    }
+
+    private static void insertionSort(int[] data, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            int element = data[i];
+            int j = i - 1;
+            while (j >= from && element < data[j]) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = element;
+        }
+    }
+
+    private static void heapSort(int[] data, int from, int to){
+        int length = to - from;
+        for (int i = (length >>> 1) - 1; i >= 0; i--)
+            siftDown(data, from, i, length);
+        for (int end = length - 1; end > 0; end--) {
+            swap(data, from, from + end);
+            siftDown(data, from, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] data, int offset, int node, int length){
+        int element = data[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && data[offset + child] < data[offset + child + 1])
+                child++;
+            if (!(element < data[offset + child]))
+                break;
+            data[offset + node] = data[offset + child];
+            node = child;
+        }
+        data[offset + node] = element;
+    }
+
+    private static void swap(int[] data, int i, int j){
+        int temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(long[] data, int from, int to){
+        sort(data, from, to, depthLimit(to - from));
+    }
+
+    /**
+     * Sorts the range with the given depth limit. A part is split by
+     * {@code partOfSort}, the smaller half is sorted recursively and the
+     * larger one in the next turn of the loop.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    static void sort(long[] data, int from, int to, int depth){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(data, from, to);
+                return;
+            }
+            int pivot = partOfSort(data, from, to);
+            if (pivot - from < to - pivot) {
+                sort(data, from, pivot, depth);
+                from = pivot + 1;
+            } else {
+                sort(data, pivot + 1, to, depth);
+                to = pivot;
+            }
+        }
+        insertionSort(data, from, to);
+    }
+
+    /**
+     * Chooses the reference element, moves it to the beginning of the range
+     * and splits the range so that all elements before the returned index are
+     * not greater than the reference element and all elements after it are not less.
+     * The scans stop on elements equal to the reference element, so many equal
+     * elements are split into halves of the same size.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The final position of the reference element.
+     */
+    static int partOfSort(long[] data, int from, int to){
+        swap(data, from, choosePivot(data, from, to));
+        long pivot = data[from];
+        int left = from;
+        int right = to;
+
+        while (true) {
+            while (data[++left] < pivot)
+                if (left == to - 1) break;
+            while (pivot < data[--right])
+                if (right == from) break;
+            if (left >= right) break;
+            swap(data, left, right);
+        }
+        swap(data, from, right);
+        return right;
+    }
+
+    /**
+     * Returns the index of the median of three elements or,
+     * for large ranges, of the median of three such medians.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The index of the reference element.
+     */
+    private static int choosePivot(long[] data, int from, int to){
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from > NINTHER_THRESHOLD) {
+            int step = (to - from) >>> 3;
+            int first = medianOfThree(data, from, from + step, from + 2 * step);
+            middle = medianOfThree(data, middle - step, middle, middle + step);
+            last = medianOfThree(data, last - 2 * step, last - step, last);
+            return medianOfThree(data, first, middle, last);
+        }
+        return medianOfThree(data, from, middle, last);
+    }
+
+    private static int medianOfThree(long[] data, int a, int b, int c){
+        if (data[a] < data[b]) {
+            if (data[b] < data[c]) return b;
+            return data[a] < data[c] ? c : a;
+        }
+        if (data[a] < data[c]) return a;
+        return data[b] < data[c] ? c : b;
+    }
+
+    private static void insertionSort(long[] data, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            long element = data[i];
+            int j = i - 1;
+            while (j >= from && element < data[j]) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = element;
+        }
+    }
+
+    private static void heapSort(long[] data, int from, int to){
+        int length = to - from;
+        for (int i = (length >>> 1) - 1; i >= 0; i--)
+            siftDown(data, from, i, length);
+        for (int end = length - 1; end > 0; end--) {
+            swap(data, from, from + end);
+            siftDown(data, from, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] data, int offset, int node, int length){
+        long element = data[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && data[offset + child] < data[offset + child + 1])
+                child++;
+            if (!(element < data[offset + child]))
+                break;
+            data[offset + node] = data[offset + child];
+            node = child;
+        }
+        data[offset + node] = element;
+    }
+
+    private static void swap(long[] data, int i, int j){
+        long temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(double[] data, int from, int to){
+        sort(data, from, to, depthLimit(to - from));
+    }
+
+    /**
+     * Sorts the range with the given depth limit. A part is split by
+     * {@code partOfSort}, the smaller half is sorted recursively and the
+     * larger one in the next turn of the loop.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    static void sort(double[] data, int from, int to, int depth){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(data, from, to);
+                return;
+            }
+            int pivot = partOfSort(data, from, to);
+            if (pivot - from < to - pivot) {
+                sort(data, from, pivot, depth);
+                from = pivot + 1;
+            } else {
+                sort(data, pivot + 1, to, depth);
+                to = pivot;
+            }
+        }
+        insertionSort(data, from, to);
+    }
+
+    /**
+     * Chooses the reference element, moves it to the beginning of the range
+     * and splits the range so that all elements before the returned index are
+     * not greater than the reference element and all elements after it are not less.
+     * The scans stop on elements equal to the reference element, so many equal
+     * elements are split into halves of the same size.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The final position of the reference element.
+     */
+    static int partOfSort(double[] data, int from, int to){
+        swap(data, from, choosePivot(data, from, to));
+        double pivot = data[from];
+        int left = from;
+        int right = to;
+
+        while (true) {
+            while (Double.compare(data[++left], pivot) < 0)
+                if (left == to - 1) break;
+            while (Double.compare(pivot, data[--right]) < 0)
+                if (right == from) break;
+            if (left >= right) break;
+            swap(data, left, right);
+        }
+        swap(data, from, right);
+        return right;
+    }
+
+    /**
+     * Returns the index of the median of three elements or,
+     * for large ranges, of the median of three such medians.
+     * @param data The array that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The index of the reference element.
+     */
+    private static int choosePivot(double[] data, int from, int to){
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from > NINTHER_THRESHOLD) {
+            int step = (to - from) >>> 3;
+            int first = medianOfThree(data, from, from + step, from + 2 * step);
+            middle = medianOfThree(data, middle - step, middle, middle + step);
+            last = medianOfThree(data, last - 2 * step, last - step, last);
+            return medianOfThree(data, first, middle, last);
+        }
+        return medianOfThree(data, from, middle, last);
+    }
+
+    private static int medianOfThree(double[] data, int a, int b, int c){
+        if (Double.compare(data[a], data[b]) < 0) {
+            if (Double.compare(data[b], data[c]) < 0) return b;
+            return Double.compare(data[a], data[c]) < 0 ? c : a;
+        }
+        if (Double.compare(data[a], data[c]) < 0) return a;
+        return Double.compare(data[b], data[c]) < 0 ? c : b;
+    }
+
+    private static void insertionSort(double[] data, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            double element = data[i];
+            int j = i - 1;
+            while (j >= from && Double.compare(element, data[j]) < 0) {
+                data[j + 1] = data[j];
+                j--;
+            }
+            data[j + 1] = element;
+        }
+    }
+
+    private static void heapSort(double[] data, int from, int to){
+        int length = to - from;
+        for (int i = (length >>> 1) - 1; i >= 0; i--)
+            siftDown(data, from, i, length);
+        for (int end = length - 1; end > 0; end--) {
+            swap(data, from, from + end);
+            siftDown(data, from, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] data, int offset, int node, int length){
+        double element = data[offset + node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && Double.compare(data[offset + child], data[offset + child + 1]) < 0)
+                child++;
+            if (!(Double.compare(element, data[offset + child]) < 0))
+                break;
+            data[offset + node] = data[offset + child];
+            node = child;
+        }
+        data[offset + node] = element;
+    }
+
+    private static void swap(double[] data, int i, int j){
+        double temp = data[i];
+        data[i] = data[j];
+        data[j] = temp;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive
+     * using only the comparisons and swaps of the data.
+     * @param data The data that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(Sortable data, int from, int to){
+        sort(data, from, to, depthLimit(to - from));
+    }
+
+    /**
+     * Sorts the range with the given depth limit, in the same way as the array versions.
+     * @param data The data that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    static void sort(Sortable data, int from, int to, int depth){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(data, from, to);
+                return;
+            }
+            data.onSplit(depth);
+            int pivot = partOfSort(data, from, to);
+            if (pivot - from < to - pivot) {
+                sort(data, from, pivot, depth);
+                from = pivot + 1;
+            } else {
+                sort(data, pivot + 1, to, depth);
+                to = pivot;
+            }
+        }
+        insertionSort(data, from, to);
+    }
+
+    /**
+     * The same partitioning as for arrays. The reference element stays
+     * at {@code from} until the end, so it is compared by its index.
+     * @param data The data that will be sorted.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @return The final position of the reference element.
+     */
+    static int partOfSort(Sortable data, int from, int to){
+        data.swap(from, choosePivot(data, from, to));
+        int left = from;
+        int right = to;
+
+        while (true) {
+            while (data.compare(++left, from) < 0)
+                if (left == to - 1) break;
+            while (data.compare(from, --right) < 0)
+                if (right == from) break;
+            if (left >= right) break;
+            data.swap(left, right);
+        }
+        data.swap(from, right);
+        return right;
+    }
+
+    private static int choosePivot(Sortable data, int from, int to){
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from > NINTHER_THRESHOLD) {
+            int step = (to - from) >>> 3;
+            int first = medianOfThree(data, from, from + step, from + 2 * step);
+            middle = medianOfThree(data, middle - step, middle, middle + step);
+            last = medianOfThree(data, last - 2 * step, last - step, last);
+            return medianOfThree(data, first, middle, last);
+        }
+        return medianOfThree(data, from, middle, last);
+    }
+
+    private static int medianOfThree(Sortable data, int a, int b, int c){
+        if (data.compare(a, b) < 0) {
+            if (data.compare(b, c) < 0) return b;
+            return data.compare(a, c) < 0 ? c : a;
+        }
+        if (data.compare(a, c) < 0) return a;
+        return data.compare(b, c) < 0 ? c : b;
+    }
+
+    private static void insertionSort(Sortable data, int from, int to){
+        for (int i = from + 1; i < to; i++)
+            for (int j = i; j > from && data.compare(j, j - 1) < 0; j--)
+                data.swap(j, j - 1);
+    }
+
+    private static void heapSort(Sortable data, int from, int to){
+        int length = to - from;
+        for (int i = (length >>> 1) - 1; i >= 0; i--)
+            siftDown(data, from, i, length);
+        for (int end = length - 1; end > 0; end--) {
+            data.swap(from, from + end);
+            siftDown(data, from, 0, end);
+        }
+    }
+
+    private static void siftDown(Sortable data, int offset, int node, int length){
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && data.compare(offset + child, offset + child + 1) < 0)
+                child++;
+            if (data.compare(offset + node, offset + child) >= 0)
+                break;
+            data.swap(offset + node, offset + child);
+            node = child;
+        }
+    }
+}
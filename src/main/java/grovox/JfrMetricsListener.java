@@ -0,0 +1,136 @@
+package grovox;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ *  Commits the calls of {@link MetricsListener} as JDK Flight Recorder events.
+ *  An event object is only created if a recording has its type enabled.
+ * @author Max Artemov
+ */
+final class JfrMetricsListener implements MetricsListener {
+    /**
+     * Kept to ask whether the events are enabled without creating one for every call.
+     */
+    private static final GrowEvent GROW = new GrowEvent();
+    private static final ShiftEvent SHIFT = new ShiftEvent();
+    private static final SortEvent SORT = new SortEvent();
+    private static final SortJobEvent SORT_JOB = new SortJobEvent();
+
+    @Override
+    public void onGrow(MyList<?> list, int oldCapacity, int newCapacity, int copied) {
+        if (!GROW.isEnabled())
+            return;
+        GrowEvent event = new GrowEvent();
+        event.listClass = list.getClass().getName();
+        event.oldCapacity = oldCapacity;
+        event.newCapacity = newCapacity;
+        event.copied = copied;
+        event.commit();
+    }
+
+    @Override
+    public void onShift(MyList<?> list, int shifted) {
+        if (!SHIFT.isEnabled())
+            return;
+        ShiftEvent event = new ShiftEvent();
+        event.listClass = list.getClass().getName();
+        event.shifted = shifted;
+        event.commit();
+    }
+
+    @Override
+    public void onSort(SortStats stats) {
+        if (!SORT.isEnabled())
+            return;
+        SortEvent event = new SortEvent();
+        event.size = stats.size();
+        event.comparisons = stats.comparisons();
+        event.swaps = stats.swaps();
+        event.maxDepth = stats.maxDepth();
+        event.sortingTime = stats.nanos();
+        event.parallel = stats.parallel();
+        event.commit();
+    }
+
+    @Override
+    public void onSortJob(SortJobStats stats) {
+        if (!SORT_JOB.isEnabled())
+            return;
+        SortJobEvent event = new SortJobEvent();
+        event.size = stats.size();
+        event.large = stats.large();
+        event.queueTime = stats.queuedNanos();
+        event.runTime = stats.runNanos();
+        event.commit();
+    }
+
+    @Name("grovox.Grow")
+    @Label("List Grow")
+    @Category("Grovox")
+    @Description("A list has copied its elements into a larger array")
+    static final class GrowEvent extends Event {
+        @Label("List Class")
+        String listClass;
+        @Label("Old Capacity")
+        int oldCapacity;
+        @Label("New Capacity")
+        int newCapacity;
+        @Label("Copied Elements")
+        int copied;
+    }
+
+    @Name("grovox.Shift")
+    @Label("List Shift")
+    @Category("Grovox")
+    @Description("A list has moved its tail to insert or remove elements in the middle")
+    @Enabled(false)
+    static final class ShiftEvent extends Event {
+        @Label("List Class")
+        String listClass;
+        @Label("Shifted Elements")
+        int shifted;
+    }
+
+    @Name("grovox.Sort")
+    @Label("Sort")
+    @Category("Grovox")
+    @Description("A sorting of QuickSort has finished")
+    static final class SortEvent extends Event {
+        @Label("Size")
+        int size;
+        @Label("Comparisons")
+        long comparisons;
+        @Label("Swaps")
+        long swaps;
+        @Label("Max Depth")
+        int maxDepth;
+        @Label("Sorting Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long sortingTime;
+        @Label("Parallel")
+        boolean parallel;
+    }
+
+    @Name("grovox.SortJob")
+    @Label("Sort Job")
+    @Category("Grovox")
+    @Description("A job of a SortExecutor has finished")
+    static final class SortJobEvent extends Event {
+        @Label("Size")
+        int size;
+        @Label("Large")
+        boolean large;
+        @Label("Queue Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueTime;
+        @Label("Run Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long runTime;
+    }
+}
@@ -0,0 +1,155 @@
+package grovox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *  This is an implementation of the {@link MyList} interface that keeps
+ *  its elements in a file mapped into memory, so a list survives the restart
+ *  of the process and is opened again without reading or decoding its elements.
+ *  The file starts with a header of {@value #HEADER_BYTES} bytes: a marker,
+ *  the width of an element, the number of elements and the number of elements
+ *  the file has room for. All numbers are stored in little-endian order.
+ *  The elements follow the header, each encoded by a {@link Codec}.
+ *  When the file is filled, it is extended and mapped again.
+ *  Changes reach the file when the operating system writes them out,
+ *  {@link #force()} writes them at once.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class MappedList<E> extends BufferList<E> {
+    /**
+     * The number of bytes before the first element.
+     */
+    public static final int HEADER_BYTES = 16;
+    /**
+     * Stores the number of elements a new file has room for.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * The first four bytes of every file of a list.
+     */
+    private static final int MAGIC = 0x4C59474D;
+    private static final int WIDTH_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+
+    private MappedList(Codec<E> codec, FileChannel channel) {
+        super(codec, HEADER_BYTES);
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the list stored in the file or creates a new empty list
+     * if the file does not exist or is empty.
+     * @param path The file of the list.
+     * @param codec Encodes and decodes the elements.
+     * @return The opened list.
+     * @param <E> The type of data stored in the list.
+     * @throws IOException If the file cannot be opened or mapped,
+     * or does not contain a list with elements of the width of the codec.
+     */
+    public static <E> MappedList<E> open(Path path, Codec<E> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedList<E> list = new MappedList<>(codec, channel);
+            if (channel.size() == 0)
+                list.create();
+            else
+                list.load(path);
+            return list;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all changes of the elements and the header to the storage device.
+     */
+    public void force() {
+        ensureOpen();
+        ((MappedByteBuffer) buffer).force();
+    }
+
+    /**
+     * Closes the file. The mapping is released when the buffer is collected,
+     * calling this method again does nothing.
+     * @throws UncheckedIOException If the file cannot be closed.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+        size = 0;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Extends the file and maps it again. The elements stay where they are.
+     * @param newCapacity The number of elements that must fit into the file.
+     * @throws UncheckedIOException If the file cannot be mapped.
+     */
+    @Override
+    void resize(int newCapacity) {
+        try {
+            map(newCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.putInt(CAPACITY_OFFSET, newCapacity);
+    }
+
+    /**
+     * Stores the new size in the header.
+     */
+    @Override
+    void sizeChanged() {
+        buffer.putInt(SIZE_OFFSET, size);
+    }
+
+    private void create() throws IOException {
+        map(DEFAULT_CAPACITY);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(WIDTH_OFFSET, width);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putInt(CAPACITY_OFFSET, DEFAULT_CAPACITY);
+    }
+
+    private void load(Path path) throws IOException {
+        long length = channel.size();
+        if (length < HEADER_BYTES)
+            throw new IOException(path + " is not a list file");
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC)
+            throw new IOException(path + " is not a list file");
+        if (buffer.getInt(WIDTH_OFFSET) != width)
+            throw new IOException(path + " stores elements of " + buffer.getInt(WIDTH_OFFSET)
+                    + " bytes, the codec writes " + width);
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        int storedSize = buffer.getInt(SIZE_OFFSET);
+        if (capacity < 0 || capacity > maxCapacity || storedSize < 0 || storedSize > capacity
+                || length < HEADER_BYTES + (long) capacity * width)
+            throw new IOException(path + " has a broken header");
+        map(capacity);
+        size = storedSize;
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * width)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
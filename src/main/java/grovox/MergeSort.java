@@ -0,0 +1,534 @@
+package grovox;
+
+import java.util.Comparator;
+
+/**
+ * The stable sorting engine behind {@code QuickSort.runStableSorting}. It is an adaptive
+ * merge sort in the manner of TimSort: the data is cut into natural runs, the parts
+ * that are already ascending or strictly descending (those are reversed in place),
+ * short runs are extended to {@code minRun} elements by a binary insertion sort,
+ * and the runs are merged while they are found, keeping the lengths on the stack
+ * so that neighbouring runs have similar lengths. A merge copies only the shorter run
+ * aside and gallops, that is searches exponentially, once one run has won
+ * {@code minGallop} times in a row, so interleaved runs are merged by blocks.
+ * Sorted or reversed data is one run and takes a single pass of n - 1 comparisons,
+ * any data takes O(n log n) time and at most n / 2 extra cells.
+ * Elements that are equal keep their order.
+ *@author Max Artemov
+ */
+final class MergeSort {
+    /**
+     * Ranges shorter than this are sorted by binary insertion without merging.
+     */
+    static final int MIN_MERGE = 32;
+    /**
+     * How many times in a row one run must win before the merge starts galloping.
+     */
+    static final int MIN_GALLOP = 7;
+    /**
+     * The runs on the stack grow at least like the Fibonacci numbers,
+     * so this is enough for any array.
+     */
+    private static final int MAX_RUNS = 49;
+
+    private final Object[] array;
+    private final Comparator<Object> comparator;
+    /**
+     * The current galloping threshold. It goes down while galloping pays off
+     * and up when it does not.
+     */
+    private int minGallop = MIN_GALLOP;
+    /**
+     * The space for the shorter run of a merge, it grows when needed.
+     */
+    private Object[] temp = new Object[0];
+    private final int[] runBase = new int[MAX_RUNS];
+    private final int[] runLength = new int[MAX_RUNS];
+    private int runCount;
+
+    @SuppressWarnings("unchecked")
+    private MergeSort(Object[] array, Comparator<?> comparator) {
+        this.array = array;
+        this.comparator = (Comparator<Object>) comparator;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive,
+     * keeping the order of the equal elements.
+     * @param array The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param <E> The type of the elements.
+     * @throws IllegalArgumentException If the comparator is found to be inconsistent.
+     */
+    static <E> void sort(Object[] array, int from, int to, Comparator<? super E> comparator){
+        int remaining = to - from;
+        if (remaining < 2)
+            return;
+        MergeSort sort = new MergeSort(array, comparator);
+        if (remaining < MIN_MERGE) {
+            int run = sort.countRunAndMakeAscending(from, to);
+            sort.binaryInsertionSort(from, to, from + run);
+            return;
+        }
+        int minRun = minRunLength(remaining);
+        do {
+            int run = sort.countRunAndMakeAscending(from, to);
+            if (run < minRun) {
+                int forced = Math.min(remaining, minRun);
+                sort.binaryInsertionSort(from, from + forced, from + run);
+                run = forced;
+            }
+            sort.pushRun(from, run);
+            sort.mergeCollapse();
+            from += run;
+            remaining -= run;
+        } while (remaining != 0);
+        sort.mergeForceCollapse();
+    }
+
+    /**
+     * Returns the length of the shortest run, between {@code MIN_MERGE / 2} and {@code MIN_MERGE},
+     * chosen so that the number of runs is a power of two or a bit less, which keeps the merges balanced.
+     * @param length The number of elements to sort.
+     * @return The minimum run length.
+     */
+    static int minRunLength(int length){
+        int lowBits = 0;
+        while (length >= MIN_MERGE) {
+            lowBits |= length & 1;
+            length >>= 1;
+        }
+        return length + lowBits;
+    }
+
+    /**
+     * Finds the run that starts at {@code from} and reverses it if it is strictly descending.
+     * Only strictly descending runs are reversed, so the equal elements keep their order.
+     * @param from The first element of the run.
+     * @param to The element after the last one that may be in the run.
+     * @return The length of the run.
+     */
+    private int countRunAndMakeAscending(int from, int to){
+        int end = from + 1;
+        if (end == to)
+            return 1;
+        if (comparator.compare(array[end++], array[from]) < 0) {
+            while (end < to && comparator.compare(array[end], array[end - 1]) < 0)
+                end++;
+            reverse(from, end);
+        } else {
+            while (end < to && comparator.compare(array[end], array[end - 1]) >= 0)
+                end++;
+        }
+        return end - from;
+    }
+
+    private void reverse(int from, int to){
+        for (to--; from < to; from++, to--) {
+            Object element = array[from];
+            array[from] = array[to];
+            array[to] = element;
+        }
+    }
+
+    /**
+     * Sorts the range whose elements before {@code start} are already sorted.
+     * Every next element is put after the equal ones found by a binary search.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param start The first element that is not sorted yet.
+     */
+    private void binaryInsertionSort(int from, int to, int start){
+        for (; start < to; start++) {
+            Object pivot = array[start];
+            int left = from;
+            int right = start;
+            while (left < right) {
+                int middle = (left + right) >>> 1;
+                if (comparator.compare(pivot, array[middle]) < 0)
+                    right = middle;
+                else
+                    left = middle + 1;
+            }
+            System.arraycopy(array, left, array, left + 1, start - left);
+            array[left] = pivot;
+        }
+    }
+
+    private void pushRun(int base, int length){
+        runBase[runCount] = base;
+        runLength[runCount] = length;
+        runCount++;
+    }
+
+    /**
+     * Merges the runs on the top of the stack until every run is longer than
+     * the two above it together and than the run above it.
+     */
+    private void mergeCollapse(){
+        while (runCount > 1) {
+            int n = runCount - 2;
+            if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                    || n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1]) {
+                if (runLength[n - 1] < runLength[n + 1])
+                    n--;
+            } else if (runLength[n] > runLength[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Merges all the runs on the stack into one.
+     */
+    private void mergeForceCollapse(){
+        while (runCount > 1) {
+            int n = runCount - 2;
+            if (n > 0 && runLength[n - 1] < runLength[n + 1])
+                n--;
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Merges the runs number {@code i} and {@code i + 1} of the stack.
+     * The elements of the first run that are not greater than the first element of the second one
+     * and the elements of the second run that are not less than the last element of the first one
+     * are already in place, so only the rest is merged.
+     * @param i The index of the first run on the stack.
+     */
+    private void mergeAt(int i){
+        int base1 = runBase[i];
+        int length1 = runLength[i];
+        int base2 = runBase[i + 1];
+        int length2 = runLength[i + 1];
+
+        runLength[i] = length1 + length2;
+        if (i == runCount - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLength[i + 1] = runLength[i + 2];
+        }
+        runCount--;
+
+        int skipped = gallopRight(array[base2], array, base1, length1, 0);
+        base1 += skipped;
+        length1 -= skipped;
+        if (length1 == 0)
+            return;
+        length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1);
+        if (length2 == 0)
+            return;
+
+        if (length1 <= length2)
+            mergeLow(base1, length1, base2, length2);
+        else
+            mergeHigh(base1, length1, base2, length2);
+    }
+
+    /**
+     * Finds where the key goes before the equal elements of a sorted range.
+     * The search starts at the hint and gallops away from it, then finishes with a binary search.
+     * @param key The element whose place is searched.
+     * @param data The array with the range.
+     * @param base The first element of the range.
+     * @param length The length of the range.
+     * @param hint The index in the range where the search starts.
+     * @return The number of elements of the range that are less than the key.
+     */
+    private int gallopLeft(Object key, Object[] data, int base, int length, int hint){
+        int lastOffset = 0;
+        int offset = 1;
+        if (comparator.compare(key, data[base + hint]) > 0) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && comparator.compare(key, data[base + hint + offset]) > 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0)
+                    offset = maxOffset;
+            }
+            if (offset > maxOffset)
+                offset = maxOffset;
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && comparator.compare(key, data[base + hint - offset]) <= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0)
+                    offset = maxOffset;
+            }
+            if (offset > maxOffset)
+                offset = maxOffset;
+            int previous = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - previous;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (comparator.compare(key, data[base + middle]) > 0)
+                lastOffset = middle + 1;
+            else
+                offset = middle;
+        }
+        return offset;
+    }
+
+    /**
+     * Finds where the key goes after the equal elements of a sorted range,
+     * in the same way as {@code gallopLeft}.
+     * @param key The element whose place is searched.
+     * @param data The array with the range.
+     * @param base The first element of the range.
+     * @param length The length of the range.
+     * @param hint The index in the range where the search starts.
+     * @return The number of elements of the range that are not greater than the key.
+     */
+    private int gallopRight(Object key, Object[] data, int base, int length, int hint){
+        int lastOffset = 0;
+        int offset = 1;
+        if (comparator.compare(key, data[base + hint]) < 0) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && comparator.compare(key, data[base + hint - offset]) < 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0)
+                    offset = maxOffset;
+            }
+            if (offset > maxOffset)
+                offset = maxOffset;
+            int previous = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - previous;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && comparator.compare(key, data[base + hint + offset]) >= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0)
+                    offset = maxOffset;
+            }
+            if (offset > maxOffset)
+                offset = maxOffset;
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (comparator.compare(key, data[base + middle]) < 0)
+                offset = middle;
+            else
+                lastOffset = middle + 1;
+        }
+        return offset;
+    }
+
+    /**
+     * Merges two neighbouring runs from the left, the first run is copied aside.
+     * The first element of the second run goes before the first run
+     * and the last element of the first run goes after the second run.
+     * @param base1 The first element of the first run.
+     * @param length1 The length of the first run, not greater than the length of the second one.
+     * @param base2 The first element of the second run.
+     * @param length2 The length of the second run.
+     */
+    private void mergeLow(int base1, int length1, int base2, int length2){
+        Object[] array = this.array;
+        Object[] temp = ensureTemp(length1);
+        System.arraycopy(array, base1, temp, 0, length1);
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        array[dest++] = array[cursor2++];
+        if (--length2 == 0) {
+            System.arraycopy(temp, cursor1, array, dest, length1);
+            return;
+        }
+        if (length1 == 1) {
+            System.arraycopy(array, cursor2, array, dest, length2);
+            array[dest + length2] = temp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            // one element at a time until one run keeps winning
+            do {
+                if (comparator.compare(array[cursor2], temp[cursor1]) < 0) {
+                    array[dest++] = array[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 0)
+                        break outer;
+                } else {
+                    array[dest++] = temp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 1)
+                        break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // whole blocks while galloping finds long ones
+            do {
+                count1 = gallopRight(array[cursor2], temp, cursor1, length1, 0);
+                if (count1 != 0) {
+                    System.arraycopy(temp, cursor1, array, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    length1 -= count1;
+                    if (length1 <= 1)
+                        break outer;
+                }
+                array[dest++] = array[cursor2++];
+                if (--length2 == 0)
+                    break outer;
+
+                count2 = gallopLeft(temp[cursor1], array, cursor2, length2, 0);
+                if (count2 != 0) {
+                    System.arraycopy(array, cursor2, array, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    length2 -= count2;
+                    if (length2 == 0)
+                        break outer;
+                }
+                array[dest++] = temp[cursor1++];
+                if (--length1 == 1)
+                    break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            if (minGallop < 0)
+                minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (length1 == 1) {
+            System.arraycopy(array, cursor2, array, dest, length2);
+            array[dest + length2] = temp[cursor1];
+        } else if (length1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(temp, cursor1, array, dest, length1);
+        }
+    }
+
+    /**
+     * Merges two neighbouring runs from the right, the second run is copied aside.
+     * It is the mirror image of {@code mergeLow}.
+     * @param base1 The first element of the first run.
+     * @param length1 The length of the first run, greater than the length of the second one.
+     * @param base2 The first element of the second run.
+     * @param length2 The length of the second run.
+     */
+    private void mergeHigh(int base1, int length1, int base2, int length2){
+        Object[] array = this.array;
+        Object[] temp = ensureTemp(length2);
+        System.arraycopy(array, base2, temp, 0, length2);
+        int cursor1 = base1 + length1 - 1;
+        int cursor2 = length2 - 1;
+        int dest = base2 + length2 - 1;
+
+        array[dest--] = array[cursor1--];
+        if (--length1 == 0) {
+            System.arraycopy(temp, 0, array, dest - (length2 - 1), length2);
+            return;
+        }
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+            array[dest] = temp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            do {
+                if (comparator.compare(temp[cursor2], array[cursor1]) < 0) {
+                    array[dest--] = array[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 0)
+                        break outer;
+                } else {
+                    array[dest--] = temp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 1)
+                        break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = length1 - gallopRight(temp[cursor2], array, base1, length1, length1 - 1);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    length1 -= count1;
+                    System.arraycopy(array, cursor1 + 1, array, dest + 1, count1);
+                    if (length1 == 0)
+                        break outer;
+                }
+                array[dest--] = temp[cursor2--];
+                if (--length2 == 1)
+                    break outer;
+
+                count2 = length2 - gallopLeft(array[cursor1], temp, 0, length2, length2 - 1);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    length2 -= count2;
+                    System.arraycopy(temp, cursor2 + 1, array, dest + 1, count2);
+                    if (length2 <= 1)
+                        break outer;
+                }
+                array[dest--] = array[cursor1--];
+                if (--length1 == 0)
+                    break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            if (minGallop < 0)
+                minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+            array[dest] = temp[cursor2];
+        } else if (length2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(temp, 0, array, dest - (length2 - 1), length2);
+        }
+    }
+
+    /**
+     * Returns the space for a run of the given length, growing it by half if it is too small.
+     * @param length The length of the run.
+     * @return The space.
+     */
+    private Object[] ensureTemp(int length){
+        if (temp.length < length)
+            temp = new Object[Math.max(length, Math.min(temp.length + (temp.length >> 1), array.length >>> 1))];
+        return temp;
+    }
+}
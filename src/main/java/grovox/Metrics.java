@@ -0,0 +1,33 @@
+package grovox;
+
+/**
+ *  Holds the {@link MetricsListener} of this package. While no listener is set,
+ *  the measured operations only read one field to find out that nothing is measured,
+ *  the sortings then run without any counting.
+ * @author Max Artemov
+ */
+public final class Metrics {
+    /**
+     * The current listener, or null if nothing is measured.
+     */
+    static volatile MetricsListener listener;
+
+    private Metrics() {
+    }
+
+    /**
+     * Sets the listener that receives the costs of the measured operations of this package
+     * from now on, in all threads. {@link MetricsListener} lists which operations those are.
+     * @param listener The listener, or null to stop measuring.
+     */
+    public static void setListener(MetricsListener listener){
+        Metrics.listener = listener;
+    }
+
+    /**
+     * @return The current listener, or null if nothing is measured.
+     */
+    public static MetricsListener getListener(){
+        return listener;
+    }
+}
@@ -0,0 +1,96 @@
+package grovox;
+
+/**
+ *  Receives the costs of the operations of this package: how often
+ *  {@link MyArrayList} grows its array, how many elements it moves,
+ *  and how much work the {@link QuickSort} sortings by {@link IntroSort} do.
+ *  The listener is registered with {@link Metrics#setListener(MetricsListener)},
+ *  until then nothing is measured. All the methods do nothing by default.
+ *  The methods are called from the thread that did the operation,
+ *  so a listener that is used by several threads must be thread-safe.
+ * @author Max Artemov
+ */
+public interface MetricsListener {
+    /**
+     * Called when a list has grown its array.
+     * @param list The list whose array has grown.
+     * @param oldCapacity The length of the old array.
+     * @param newCapacity The length of the new array.
+     * @param copied The number of elements that have been copied into the new array.
+     */
+    default void onGrow(MyList<?> list, int oldCapacity, int newCapacity, int copied){
+    }
+
+    /**
+     * Called when a list has moved its tail to insert or remove elements in the middle.
+     * @param list The list that has moved its elements.
+     * @param shifted The number of elements that have been moved.
+     */
+    default void onShift(MyList<?> list, int shifted){
+    }
+
+    /**
+     * Called when a sorting by {@link IntroSort} is finished, that is a sorting by
+     * {@code QuickSort.runSorting}, {@code runParallelSorting}, {@code runSortingBy}
+     * or {@code argsort}. The other entry points are not reported, as their costs are
+     * not comparisons and swaps of the same kind: {@code runStableSorting} merges runs,
+     * {@code runSortingByIntKey} and {@code runSortingByLongKey} count keys by a radix sort,
+     * and {@code select}, {@code partialSort} and {@code topK} stop before the data is sorted.
+     * The primitive lists are measured by the scalar sorting even when the vector one is in use.
+     * @param stats The costs of the sorting.
+     */
+    default void onSort(SortStats stats){
+    }
+
+    /**
+     * Called when a job of a {@link SortExecutor} is finished.
+     * @param stats The latency of the job.
+     */
+    default void onSortJob(SortJobStats stats){
+    }
+
+    /**
+     * Returns a listener that passes every call to this listener and then to the other one.
+     * @param other The listener that is called second.
+     * @return The combined listener.
+     */
+    default MetricsListener andThen(MetricsListener other){
+        MetricsListener first = this;
+        return new MetricsListener() {
+            @Override
+            public void onGrow(MyList<?> list, int oldCapacity, int newCapacity, int copied) {
+                first.onGrow(list, oldCapacity, newCapacity, copied);
+                other.onGrow(list, oldCapacity, newCapacity, copied);
+            }
+
+            @Override
+            public void onShift(MyList<?> list, int shifted) {
+                first.onShift(list, shifted);
+                other.onShift(list, shifted);
+            }
+
+            @Override
+            public void onSort(SortStats stats) {
+                first.onSort(stats);
+                other.onSort(stats);
+            }
+
+            @Override
+            public void onSortJob(SortJobStats stats) {
+                first.onSortJob(stats);
+                other.onSortJob(stats);
+            }
+        };
+    }
+
+    /**
+     * Returns a listener that commits every call as a JDK Flight Recorder event:
+     * {@code grovox.Grow}, {@code grovox.Shift}, {@code grovox.Sort} and {@code grovox.SortJob}.
+     * The events are only written while a recording has them enabled,
+     * the shift events are disabled by default as there is one for every insertion.
+     * @return The listener.
+     */
+    static MetricsListener jfr(){
+        return new JfrMetricsListener();
+    }
+}
@@ -1,5 +1,19 @@
 package grovox;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
 /**
  *  This is an implementation of the {@link MyList} interface.
  *  All his methods are fully implemented here. This
@@ -12,7 +26,7 @@ public class MyArrayList<E> implements MyList<E> {
     /**
      * Stores the original size of the array.
      */
-    private static final int DEFAULT_CAPACITY = 10;
+    static final int DEFAULT_CAPACITY = 10;
     /**
      * Stores the maximum size of the array.
      */
@@ -30,12 +44,86 @@ public class MyArrayList<E> implements MyList<E> {
      * A value that indicates the number of elements.
      */
     private int size;
+    /**
+     * Decides how much the array grows and whether it shrinks.
+     */
+    private final GrowthPolicy growthPolicy;
+    /**
+     * The first four bytes of every snapshot written by {@code writeTo}.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x5358474D;
+    /**
+     * The number of bytes before the first element of a snapshot:
+     * the marker, the width of an element and the number of elements.
+     */
+    private static final int SNAPSHOT_HEADER_BYTES = 12;
+    /**
+     * The number of direct buffers that are written or read by one call of the channel,
+     * and the size of each of them.
+     */
+    private static final int CHANNEL_BUFFERS = 4;
+    private static final int CHANNEL_BUFFER_BYTES = 1 << 16;
+    /**
+     * The direct buffers of the thread, allocated once and reused by every snapshot it writes or reads.
+     */
+    private static final ThreadLocal<ByteBuffer[]> channelBuffers = ThreadLocal.withInitial(() -> {
+        ByteBuffer[] buffers = new ByteBuffer[CHANNEL_BUFFERS + 1];
+        for (int i = 1; i <= CHANNEL_BUFFERS; i++)
+            buffers[i] = ByteBuffer.allocateDirect(CHANNEL_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        return buffers;
+    });
 
     /**
      * The constructor that creates the default array.
      */
     public MyArrayList() {
+        this(GrowthPolicy.DEFAULT);
+    }
+
+    /**
+     * The constructor that creates the default array
+     * which grows and shrinks as the policy says.
+     * @param growthPolicy Decides how much the array grows and whether it shrinks.
+     */
+    public MyArrayList(GrowthPolicy growthPolicy) {
         this.elementData = DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+        this.growthPolicy = growthPolicy;
+    }
+
+    /**
+     * The constructor that creates an array of the given length,
+     * so that this number of elements is added without growing.
+     * @param initialCapacity The length of the array.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public MyArrayList(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.DEFAULT);
+    }
+
+    /**
+     * The constructor that creates an array of the given length
+     * which grows and shrinks as the policy says.
+     * @param initialCapacity The length of the array.
+     * @param growthPolicy Decides how much the array grows and whether it shrinks.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public MyArrayList(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        this.elementData = initialCapacity == 0 ? DEFAULTCAPACITY_EMPTY_ELEMENTDATA : new Object[initialCapacity];
+        this.growthPolicy = growthPolicy;
+    }
+
+    /**
+     * The constructor that takes over an array filled by another class of this package.
+     * The array is not copied, it must not be used by anyone else afterwards.
+     * @param elementData The array whose first {@code size} elements are stored.
+     * @param size The number of elements.
+     */
+    MyArrayList(Object[] elementData, int size) {
+        this.elementData = elementData.length == 0 ? DEFAULTCAPACITY_EMPTY_ELEMENTDATA : elementData;
+        this.size = size;
+        this.growthPolicy = GrowthPolicy.DEFAULT;
     }
 
     /**
@@ -71,9 +159,9 @@ public class MyArrayList<E> implements MyList<E> {
         if (this.elementData.length == size)
             elementData = grow(size + 1);
 
-        for (int i = size; i >= index; i--)
-            elementData[i + 1] = elementData[i];
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
         elementData[index] = element;
+        shifted(size - index);
 
         size++;
         return true;
@@ -92,24 +180,97 @@ public class MyArrayList<E> implements MyList<E> {
             return false;
         if (elements.length > elementData.length - size)
             elementData = grow(size + elements.length);
-        for (int i = 0; i < elements.length; i++){
-            elementData[size] = elements[i];
-            size++;
+        System.arraycopy(elements, 0, elementData, size, elements.length);
+        size += elements.length;
+        return true;
+    }
+
+    /**
+     * Inserts an array of elements starting at the specified location in the array.
+     * The array grows at most once and the tail is moved only once,
+     * by the length of the inserted array.
+     * By first calling a method {@code checkAddIndex(int index)} that checks if there is an element
+     * in the array with this number.
+     * @param index The place where the first element should be inserted.
+     * @param elements An array of objects to add.
+     * @return whether the array has changed.
+     */
+    @Override
+    public boolean addAll(int index, E[] elements) {
+        checkAddIndex(index);
+        if (elements.length == 0)
+            return false;
+        if (elements.length > elementData.length - size)
+            elementData = grow(size + elements.length);
+        System.arraycopy(elementData, index, elementData, index + elements.length, size - index);
+        System.arraycopy(elements, 0, elementData, index, elements.length);
+        shifted(size - index);
+        size += elements.length;
+        return true;
+    }
+
+    /**
+     * Adds all the elements of another list to the end of the array.
+     * The array grows at most once, if the other list is also a {@code MyArrayList}
+     * its elements are copied as one block.
+     * @param elements The list whose elements should be added, it may be this list itself.
+     * @return whether the array has changed.
+     */
+    @Override
+    public boolean addAll(MyList<? extends E> elements) {
+        int length = elements.size();
+        if (length == 0)
+            return false;
+        if (length > elementData.length - size)
+            elementData = grow(size + length);
+        if (elements instanceof MyArrayList) {
+            // read the array after growing, the list may be this one
+            System.arraycopy(((MyArrayList<?>) elements).elementData, 0, elementData, size, length);
+        } else {
+            for (int i = 0; i < length; i++)
+                elementData[size + i] = elements.get(i);
         }
+        size += length;
         return true;
     }
 
+    /**
+     * Makes sure that the array can store the given number of elements without growing again.
+     * @param minCapacity The number of elements the array should be able to store.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elementData.length
+                && !(elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA && minCapacity <= DEFAULT_CAPACITY))
+            grow(minCapacity);
+    }
+
+    /**
+     * Shrinks the array to the number of stored elements,
+     * so that the list takes no more memory than it needs.
+     */
+    public void trimToSize() {
+        if (size < elementData.length)
+            elementData = size == 0 ? DEFAULTCAPACITY_EMPTY_ELEMENTDATA : Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * @return The length of the array, the number of elements that can be stored without growing.
+     */
+    int capacity() {
+        return elementData.length;
+    }
+
     /**
      * Increases the array by creating a new one and
      * copying all stored elements into it.
      * If the required size is larger than possible,
      * an exception will be thrown.
      * If the array is still default and nothing is saved in it,
-     * then a new array is returned that has the maximum size of
-     * the accepted value and the default.
-     * If the array already had this one, then a new array will
-     * be created from the current size plus the maximum required
-     * for storage and the current size of the broken one shifted by one.
+     * the growth policy chooses the length of the first array,
+     * by default the maximum of the accepted value and the default.
+     * Otherwise the growth policy chooses the new length,
+     * which is at least the required one and at most the maximum
+     * array length unless more is required.
      * @param minCapacity A value indicating the required size.
      * @return A link to the new array
      * @throws OutOfMemoryError with a message "Required array length " + current size + " + " + the number of missing items + " is too large"
@@ -119,19 +280,38 @@ public class MyArrayList<E> implements MyList<E> {
             throw new OutOfMemoryError("Required array length " + size + " + " + (minCapacity - size) + " is too large");
         }
         int oldCapacity = elementData.length;
-        if (oldCapacity > 0 || elementData != DEFAULTCAPACITY_EMPTY_ELEMENTDATA) {
-            int newCapacity = oldCapacity + Math.max(minCapacity - oldCapacity, oldCapacity >> 1);
-            if (newCapacity < 0 && newCapacity > MAX_ARRAY_LENGTH)
-                newCapacity = minCapacity;
+        boolean first = elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+        int newCapacity = first
+                ? growthPolicy.initialCapacity(minCapacity, DEFAULT_CAPACITY)
+                : growthPolicy.grow(oldCapacity, minCapacity);
+        if (newCapacity < minCapacity || newCapacity > MAX_ARRAY_LENGTH)
+            newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_ARRAY_LENGTH));
 
-            Object[] newElementData = new Object[newCapacity];
-            for (int i = 0; i < elementData.length; i++)
-                newElementData[i] = elementData[i];
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            listener.onGrow(this, oldCapacity, newCapacity, size);
+        return elementData = first ? new Object[newCapacity] : Arrays.copyOf(elementData, newCapacity);
+    }
 
-            return elementData = newElementData;
-        } else {
-            return elementData = new Object[Math.max(DEFAULT_CAPACITY, minCapacity)];
-        }
+    /**
+     * Reports to the metrics listener, if there is one, that the tail has been moved.
+     * @param count The number of moved elements.
+     */
+    private void shifted(int count) {
+        MetricsListener listener = Metrics.listener;
+        if (listener != null && count > 0)
+            listener.onShift(this, count);
+    }
+
+    /**
+     * Gives the growth policy a chance to shrink the array after elements have been removed.
+     */
+    private void shrinkIfNeeded() {
+        int newCapacity = growthPolicy.shrink(elementData.length, size);
+        if (newCapacity < elementData.length)
+            elementData = newCapacity == 0 && size == 0
+                    ? DEFAULTCAPACITY_EMPTY_ELEMENTDATA
+                    : Arrays.copyOf(elementData, Math.max(newCapacity, size));
     }
 
     /**
@@ -145,21 +325,74 @@ public class MyArrayList<E> implements MyList<E> {
     public E remove(int index) {
         checkModifierIndex(index);
         E result = (E) elementData[index];
-        for (int i = index + 1; i < size; i++)
-            elementData[i - 1] = elementData[i];
+        System.arraycopy(elementData, index + 1, elementData, index, size - index - 1);
+        shifted(size - index - 1);
         size--;
         elementData[size] = null;
+        shrinkIfNeeded();
         return result;
     }
 
+    /**
+     * Removes the elements from {@code from}, inclusive, to {@code to}, exclusive.
+     * The tail is moved to the left only once and the freed cells are cleared.
+     * @param from The index of the first element to remove.
+     * @param to The index after the last element to remove.
+     * @throws IndexOutOfBoundsException if {@code from < 0}, {@code to > size()} or {@code from > to}.
+     */
+    @Override
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        System.arraycopy(elementData, to, elementData, from, size - to);
+        shifted(size - to);
+        int newSize = size - (to - from);
+        Arrays.fill(elementData, newSize, size, null);
+        size = newSize;
+        shrinkIfNeeded();
+    }
+
+    /**
+     * Removes all the elements that satisfy the filter, the order of the others is kept.
+     * The array is compacted in a single pass: every element that stays
+     * is moved to the left at most once, then the freed cells are cleared.
+     * If the filter throws an exception, the elements checked before it are
+     * already removed and the rest are kept.
+     * @param filter Returns {@code true} for the elements to remove.
+     * @return whether any element has been removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Object[] elementData = this.elementData;
+        int size = this.size;
+        int kept = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                E element = (E) elementData[i];
+                if (!filter.test(element))
+                    elementData[kept++] = element;
+            }
+        } finally {
+            if (i < size) {
+                System.arraycopy(elementData, i, elementData, kept, size - i);
+                kept += size - i;
+            }
+            Arrays.fill(elementData, kept, size, null);
+            this.size = kept;
+            shrinkIfNeeded();
+        }
+        return kept != size;
+    }
+
     /**
      * Removes all the elements from our array.
      */
     @Override
     public void clear() {
-        for (int i = 0; i < size; i++)
-            elementData[i] = null;
+        Arrays.fill(elementData, 0, size, null);
         size = 0;
+        shrinkIfNeeded();
     }
 
     /**
@@ -208,6 +441,163 @@ public class MyArrayList<E> implements MyList<E> {
         return size == 0;
     }
 
+    /**
+     * Returns an iterator that reads the array directly.
+     * @return An iterator over the elements from the first to the last.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size)
+                    throw new NoSuchElementException();
+                return (E) elementData[index++];
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator that reads the array directly
+     * and splits it into two halves of the same size.
+     * @return A spliterator over the elements that are stored at the time of the call.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArraySpliterator<>(elementData, 0, size);
+    }
+
+    /**
+     * Writes the elements to the channel as a snapshot that {@code readFrom} reads back.
+     * The snapshot starts with a header of {@value #SNAPSHOT_HEADER_BYTES} bytes:
+     * a marker, the width of an element and the number of elements, all in little-endian order,
+     * and the elements follow, each encoded by the codec.
+     * The elements are encoded into direct buffers of the thread that are reused by every call,
+     * and several buffers are passed to a {@link GatheringByteChannel}, such as a file, in one write.
+     * @param channel The channel to write to, it must be blocking and is not closed.
+     * @param codec Encodes the elements.
+     * @throws IOException If the channel cannot be written.
+     */
+    public void writeTo(WritableByteChannel channel, Codec<E> codec) throws IOException {
+        int width = codec.width();
+        ByteBuffer[] buffers = buffers(width);
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SNAPSHOT_MAGIC).putInt(width).putInt(size).flip();
+        buffers[0] = header;
+        int perBuffer = buffers[1].capacity() / width;
+        int index = 0;
+        do {
+            int used = 1;
+            for (; used < buffers.length && index < size; used++) {
+                ByteBuffer buffer = buffers[used];
+                int count = Math.min(perBuffer, size - index);
+                buffer.clear();
+                for (int offset = 0; offset < count * width; offset += width)
+                    codec.write(buffer, offset, (E) elementData[index++]);
+                buffer.limit(count * width);
+            }
+            if (channel instanceof GatheringByteChannel) {
+                while (buffers[used - 1].hasRemaining())
+                    ((GatheringByteChannel) channel).write(buffers, 0, used);
+            } else {
+                for (int i = 0; i < used; i++)
+                    while (buffers[i].hasRemaining())
+                        channel.write(buffers[i]);
+            }
+        } while (index < size);
+    }
+
+    /**
+     * Reads a list from a snapshot written by {@code writeTo}. The array of the list is allocated
+     * once for the number of elements in the header, and the elements are read through the
+     * direct buffers of the thread, several of them at once from a {@link ScatteringByteChannel}.
+     * Nothing after the snapshot is read from the channel.
+     * @param channel The channel to read from, it must be blocking and is not closed.
+     * @param codec Decodes the elements, it must have the width the snapshot was written with.
+     * @return A new list with the elements of the snapshot.
+     * @param <E> The type of data stored in the list.
+     * @throws EOFException If the channel ends before the snapshot does.
+     * @throws IOException If the channel cannot be read, or does not contain a snapshot
+     * with elements of the width of the codec.
+     */
+    public static <E> MyArrayList<E> readFrom(ReadableByteChannel channel, Codec<E> codec) throws IOException {
+        int width = codec.width();
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining())
+            if (channel.read(header) < 0)
+                throw new EOFException("Snapshot ends in the header");
+        if (header.getInt(0) != SNAPSHOT_MAGIC)
+            throw new IOException("Not a snapshot of a list");
+        if (header.getInt(4) != width)
+            throw new IOException("Elements have " + header.getInt(4) + " bytes, the codec reads " + width);
+        int size = header.getInt(8);
+        if (size < 0 || size > MAX_ARRAY_LENGTH)
+            throw new IOException("Illegal size: " + size);
+
+        Object[] elements = new Object[size];
+        ByteBuffer[] buffers = buffers(width);
+        int perBuffer = buffers[1].capacity() / width;
+        int index = 0;
+        while (index < size) {
+            int used = 1;
+            for (int remaining = size - index; used < buffers.length && remaining > 0; used++) {
+                int count = Math.min(perBuffer, remaining);
+                buffers[used].clear().limit(count * width);
+                remaining -= count;
+            }
+            while (buffers[used - 1].hasRemaining()) {
+                long read = channel instanceof ScatteringByteChannel
+                        ? ((ScatteringByteChannel) channel).read(buffers, 1, used - 1)
+                        : channel.read(next(buffers, used));
+                if (read < 0)
+                    throw new EOFException("Snapshot ends after " + index + " of " + size + " elements");
+            }
+            for (int i = 1; i < used; i++)
+                for (int offset = 0; offset < buffers[i].limit(); offset += width)
+                    elements[index++] = codec.read(buffers[i], offset);
+        }
+        return new MyArrayList<>(elements, size);
+    }
+
+    /**
+     * Returns the direct buffers of the thread, the first place is left for the header.
+     * A codec that does not fit into one of them gets buffers of its own.
+     * @param width The number of bytes that one element takes.
+     * @return The buffers, from index 1.
+     */
+    private static ByteBuffer[] buffers(int width){
+        if (width <= CHANNEL_BUFFER_BYTES)
+            return channelBuffers.get();
+        ByteBuffer[] buffers = new ByteBuffer[2];
+        buffers[1] = ByteBuffer.allocateDirect(width).order(ByteOrder.LITTLE_ENDIAN);
+        return buffers;
+    }
+
+    private static ByteBuffer next(ByteBuffer[] buffers, int used){
+        int i = 1;
+        while (!buffers[i].hasRemaining() && i < used - 1)
+            i++;
+        return buffers[i];
+    }
+
+    /**
+     * Gives the algorithms of this package, such as {@link QuickSort},
+     * direct access to the array without the index checks of {@code get} and {@code set}.
+     * Only the first {@code size()} elements of the array are in use.
+     * @return The array in which we store the elements.
+     */
+    Object[] elementData(){
+        return elementData;
+    }
+
     /**
      *  Checks whether it is possible to add an element to this position.
      * @param index
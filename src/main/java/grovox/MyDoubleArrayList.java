@@ -0,0 +1,212 @@
+package grovox;
+
+import java.util.Arrays;
+
+/**
+ *  This is an implementation of the {@link MyDoubleList} interface.
+ *  Like {@link MyArrayList} it stores the data in an array that
+ *  expands when filled, but the array is a {@code double[]},
+ *  so the values are stored without boxing.
+ * @author Max Artemov
+ */
+public class MyDoubleArrayList implements MyDoubleList {
+    /**
+     * Stores the original size of the array.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+    /**
+     * Stores the maximum size of the array.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    /**
+     * An empty array that is the base for the main
+     * array before adding the first element.
+     */
+    private static final double[] DEFAULTCAPACITY_EMPTY_ELEMENTDATA = {};
+    /**
+     * The array in which we store the elements.
+     */
+    private double[] elementData;
+    /**
+     * A value that indicates the number of elements.
+     */
+    private int size;
+
+    /**
+     * The constructor that creates the default array.
+     */
+    public MyDoubleArrayList() {
+        this.elementData = DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+    }
+
+    /**
+     * Adds an element to the end of the array,
+     * if there is not enough space in the array,
+     * then the {@code grow(int minCapacity)} method is run to increase the array.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(double element) {
+        if (size == elementData.length)
+            grow(size + 1);
+        elementData[size] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds an element to the specified location in the array,
+     * shifting the tail of the array by one position.
+     * If there is not enough space in the array,
+     * then the {@code grow(int minCapacity)} method is run to increase the array.
+     * @param index The place where the element should be inserted.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(int index, double element) {
+        checkAddIndex(index);
+        if (size == elementData.length)
+            grow(size + 1);
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
+        elementData[index] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds an array of elements to the end of the array
+     * if there is not enough space in the array,
+     * then the {@code grow(int minCapacity)} method is run to increase the array.
+     * @param elements An array of values to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(double[] elements) {
+        if (elements.length == 0)
+            return false;
+        if (elements.length > elementData.length - size)
+            grow(size + elements.length);
+        System.arraycopy(elements, 0, elementData, size, elements.length);
+        size += elements.length;
+        return true;
+    }
+
+    /**
+     * Increases the array by one and a half times, or up to
+     * {@code minCapacity} if that is not enough, and copies
+     * all stored elements into the new array.
+     * @param minCapacity A value indicating the required size.
+     * @throws OutOfMemoryError If the required size is larger than possible.
+     */
+    private void grow(int minCapacity){
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_LENGTH)
+            throw new OutOfMemoryError("Required array length " + size + " + " + (minCapacity - size) + " is too large");
+        int oldCapacity = elementData.length;
+        if (oldCapacity > 0 || elementData != DEFAULTCAPACITY_EMPTY_ELEMENTDATA) {
+            int newCapacity = oldCapacity + Math.max(minCapacity - oldCapacity, oldCapacity >> 1);
+            if (newCapacity < 0 || newCapacity > MAX_ARRAY_LENGTH)
+                newCapacity = MAX_ARRAY_LENGTH;
+            elementData = Arrays.copyOf(elementData, newCapacity);
+        } else {
+            elementData = new double[Math.max(DEFAULT_CAPACITY, minCapacity)];
+        }
+    }
+
+    /**
+     *  Removes the specified element from the array,
+     *  shifting the tail of the array by one position.
+     * @param index The place where the element should be deleted.
+     * @return Deleted Item.
+     */
+    @Override
+    public double remove(int index) {
+        checkModifierIndex(index);
+        double result = elementData[index];
+        System.arraycopy(elementData, index + 1, elementData, index, size - index - 1);
+        size--;
+        return result;
+    }
+
+    /**
+     * Removes all the elements from our array.
+     * There are no references to release, so only the size is reset.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     *  Returns the specified element.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public double get(int index) {
+        checkModifierIndex(index);
+        return elementData[index];
+    }
+
+    /**
+     * Replaces the element with a new one.
+     * @param index Indicates the element to be replaced.
+     * @param element The element that needs to be replaced.
+     * @return The element that has been replaced.
+     */
+    @Override
+    public double set(int index, double element) {
+        checkModifierIndex(index);
+        double oldValue = elementData[index];
+        elementData[index] = element;
+        return oldValue;
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Indicates whether the array is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gives the algorithms of this package, such as {@link QuickSort},
+     * direct access to the array without the index checks of {@code get} and {@code set}.
+     * Only the first {@code size()} elements of the array are in use.
+     * @return The array in which we store the elements.
+     */
+    double[] elementData(){
+        return elementData;
+    }
+
+    /**
+     *  Checks whether it is possible to add an element to this position.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If the position is outside the array.
+     */
+    private void checkAddIndex(int index){
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    /**
+     *  Checking for the presence of elements in the array.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If there is no element at this position.
+     */
+    private void checkModifierIndex(int index){
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+}
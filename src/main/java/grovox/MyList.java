@@ -1,11 +1,20 @@
 package grovox;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  *  This interface describes the basic methods for a dynamic array.
+ *  The elements can be walked with a for-each loop or a stream, by default
+ *  through {@code get}, the implementations may do it in a faster way.
  * @param <E> The type of data that will be stored here.
  * @author Max Artemov
  */
-public interface MyList<E>{
+public interface MyList<E> extends Iterable<E>{
     /** Adds an element to the end of the array.
      * @param e Data to add.
      * @return whether the add operation was successful.
@@ -27,6 +36,75 @@ public interface MyList<E>{
      */
     boolean addAll(E[] c);
 
+    /**
+     * Inserts an array of elements starting at the specified location in the array,
+     * the elements after it are moved to the right by the length of the array.
+     * By default every element is inserted with {@code add(int, E)},
+     * the implementations may move the tail only once.
+     * @param index The place where the first element should be inserted.
+     * @param c An array of objects to add.
+     * @return whether the array has changed.
+     * @throws IndexOutOfBoundsException if the index is out of range {@code 0..size()}.
+     */
+    default boolean addAll(int index, E[] c){
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        for (int i = 0; i < c.length; i++)
+            add(index + i, c[i]);
+        return c.length != 0;
+    }
+
+    /**
+     * Adds all the elements of another list to the end of the array.
+     * The list may be this list itself, then its elements are added once.
+     * @param c The list whose elements should be added.
+     * @return whether the array has changed.
+     */
+    default boolean addAll(MyList<? extends E> c){
+        int length = c.size();
+        for (int i = 0; i < length; i++)
+            add(c.get(i));
+        return length != 0;
+    }
+
+    /**
+     * Removes the elements from {@code from}, inclusive, to {@code to}, exclusive,
+     * the elements after them are moved to the left.
+     * By default the elements are removed one by one starting from the last,
+     * the implementations may move the tail only once.
+     * @param from The index of the first element to remove.
+     * @param to The index after the last element to remove.
+     * @throws IndexOutOfBoundsException if {@code from < 0}, {@code to > size()} or {@code from > to}.
+     */
+    default void removeRange(int from, int to){
+        if (from < 0 || to > size() || from > to)
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size());
+        for (int i = to - 1; i >= from; i--)
+            remove(i);
+    }
+
+    /**
+     * Removes all the elements that satisfy the filter, the order of the others is kept.
+     * The remaining elements are moved to the left in a single pass with {@code set},
+     * then the freed tail is removed with {@code removeRange}.
+     * @param filter Returns {@code true} for the elements to remove.
+     * @return whether any element has been removed.
+     */
+    default boolean removeIf(Predicate<? super E> filter){
+        int size = size();
+        int kept = 0;
+        for (int i = 0; i < size; i++){
+            E element = get(i);
+            if (!filter.test(element)){
+                if (kept != i)
+                    set(kept, element);
+                kept++;
+            }
+        }
+        removeRange(kept, size);
+        return kept != size;
+    }
+
     /**
      * Removes the specified element from the array.
      * @param index The place where the element should be deleted.
@@ -65,4 +143,51 @@ public interface MyList<E>{
      * @return Indicates whether the array is empty.
      */
     boolean isEmpty();
-}
+
+    /**
+     * Returns an iterator over the elements from the first to the last.
+     * @return An iterator that reads the elements with {@code get}.
+     */
+    @Override
+    default Iterator<E> iterator(){
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public E next() {
+                if (index >= size())
+                    throw new NoSuchElementException();
+                return get(index++);
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the elements that are stored at the time of the call.
+     * It knows its size and splits into two halves of the same size.
+     * @return A spliterator that reads the elements with {@code get}.
+     */
+    @Override
+    default Spliterator<E> spliterator(){
+        return new IndexSpliterator<>(this, 0, size());
+    }
+
+    /**
+     * @return A sequential stream of the elements.
+     */
+    default Stream<E> stream(){
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return A parallel stream of the elements.
+     */
+    default Stream<E> parallelStream(){
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package grovox;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ *  This is an implementation of the {@link MyList} interface that keeps
+ *  its elements outside of the heap, in a direct {@link ByteBuffer}.
+ *  Every element is encoded by a {@link Codec} into the same number of bytes,
+ *  so the heap holds only the buffer and not one object per element.
+ *  When the buffer is filled, a larger one is allocated and the bytes are copied
+ *  in one block. The list must be closed when it is no longer needed, after that
+ *  it drops the buffer, {@link #size()} returns 0 and every call that reads or changes
+ *  the elements throws {@link IllegalStateException}. Closing does not free the native
+ *  memory by itself: a direct buffer is freed only when the garbage collector collects it,
+ *  as are the smaller buffers left behind when the list grows.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class OffHeapList<E> extends BufferList<E> {
+    /**
+     * Stores the original number of elements that fit into the buffer.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * The constructor that creates a buffer for the default number of elements.
+     * @param codec Encodes and decodes the elements.
+     */
+    public OffHeapList(Codec<E> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * The constructor that creates a buffer for the given number of elements.
+     * @param codec Encodes and decodes the elements.
+     * @param initialCapacity The number of elements that fit into the buffer at first.
+     * @throws IllegalArgumentException If the width of the codec is not positive
+     * or the capacity is negative or too large.
+     */
+    public OffHeapList(Codec<E> codec, int initialCapacity) {
+        super(codec, 0);
+        if (initialCapacity < 0 || initialCapacity > maxCapacity)
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        this.buffer = allocate(initialCapacity);
+    }
+
+    /**
+     * Drops the buffer, calling this method again does nothing.
+     * The native memory is not freed when this method returns,
+     * but when the garbage collector collects the buffer.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+        size = 0;
+    }
+
+    /**
+     * Allocates a new buffer and copies the bytes
+     * of all stored elements into it in one block.
+     * @param newCapacity The number of elements that must fit into the new buffer.
+     */
+    @Override
+    void resize(int newCapacity){
+        ByteBuffer newBuffer = allocate(newCapacity);
+        newBuffer.put(0, buffer, 0, size * width);
+        buffer = newBuffer;
+    }
+
+    /**
+     * Allocates a buffer for the given number of elements.
+     * @param capacity The number of elements.
+     * @return A new direct buffer in the native byte order.
+     */
+    private ByteBuffer allocate(int capacity){
+        return ByteBuffer.allocateDirect(capacity * width).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,518 @@
+package grovox;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongFunction;
+
+/**
+ *  This is an unchangeable implementation of the {@link MyList} interface for sorted
+ *  {@code int} or {@code long} values, such as lists of identifiers, that keeps them compressed.
+ *  The values are split into blocks of {@value #BLOCK_SIZE}. A block stores its first value
+ *  in the skip index and the differences between the next values, all packed with the number
+ *  of bits that the greatest difference of the block needs. Close values take a few bits each
+ *  instead of the object and the reference of a boxed value in {@link MyArrayList}.
+ *  <p>
+ *  {@link #get(int)} decodes the block up to the element, so it takes O({@value #BLOCK_SIZE}) time,
+ *  while the iterators decode every difference once. {@link #contains(long)} and
+ *  {@link #lowerBound(long)} search the skip index by a binary search and decode a single block,
+ *  {@link #range(long, long)} iterates over the values between two bounds.
+ *  Changing the list is not supported, a new list is built from the sorted values instead.
+ * @param <E> The type of data that will be stored here, {@code Integer} or {@code Long}.
+ * @author Max Artemov
+ */
+public class PackedSortedList<E extends Number> implements MyList<E> {
+    private static final int BLOCK_SHIFT = 6;
+    /**
+     * The number of values in a block, all blocks but the last are full.
+     */
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /**
+     * Turns a decoded value into an element.
+     */
+    private final LongFunction<E> boxing;
+    private final int size;
+    /**
+     * The skip index, the first value of every block.
+     */
+    private final long[] firsts;
+    /**
+     * The number of bits of every difference in a block, 0 if all the values of the block are equal.
+     */
+    private final byte[] widths;
+    /**
+     * The index of the first word of every block, and the number of words at the end.
+     */
+    private final int[] starts;
+    /**
+     * The packed differences, the differences of a block start at a new word.
+     * One more word at the end lets the last block be decoded without a bounds check.
+     */
+    private final long[] words;
+
+    /**
+     * Packs the values.
+     * @param values The values in ascending order, they are not kept.
+     * @param boxing Turns a value into an element.
+     * @throws IllegalArgumentException If the values are not sorted.
+     */
+    private PackedSortedList(long[] values, LongFunction<E> boxing) {
+        this.boxing = boxing;
+        this.size = values.length;
+        int blocks = (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+        firsts = new long[blocks];
+        widths = new byte[blocks];
+        starts = new int[blocks + 1];
+        int wordCount = 0;
+        for (int block = 0; block < blocks; block++) {
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+            long differences = 0;
+            for (int i = from + 1; i < to; i++) {
+                if (values[i] < values[i - 1])
+                    throw new IllegalArgumentException("The values are not sorted at index " + i);
+                differences |= values[i] - values[i - 1];
+            }
+            int width = Long.SIZE - Long.numberOfLeadingZeros(differences);
+            firsts[block] = values[from];
+            widths[block] = (byte) width;
+            starts[block] = wordCount;
+            wordCount += (int) (((long) (to - from - 1) * width + Long.SIZE - 1) >>> 6);
+        }
+        starts[blocks] = wordCount;
+        words = new long[wordCount + 1];
+        for (int block = 0; block < blocks; block++) {
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+            int width = widths[block];
+            if (width == 0)
+                continue;
+            long bit = (long) starts[block] << 6;
+            for (int i = from + 1; i < to; i++) {
+                write(bit, values[i] - values[i - 1], width);
+                bit += width;
+            }
+        }
+    }
+
+    /**
+     * Packs sorted {@code int} values.
+     * @param values The values in ascending order.
+     * @return The new list.
+     * @throws IllegalArgumentException If the values are not sorted.
+     */
+    public static PackedSortedList<Integer> ofInts(int[] values) {
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++)
+            longs[i] = values[i];
+        return new PackedSortedList<>(longs, value -> (int) value);
+    }
+
+    /**
+     * Packs a sorted list of {@code int} values, such as one sorted by {@link QuickSort#runSorting}.
+     * @param values The values in ascending order.
+     * @return The new list.
+     * @throws IllegalArgumentException If the values are not sorted.
+     */
+    public static PackedSortedList<Integer> ofInts(MyIntList values) {
+        long[] longs = new long[values.size()];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = values.get(i);
+        return new PackedSortedList<>(longs, value -> (int) value);
+    }
+
+    /**
+     * Packs a sorted list of {@code Integer} elements.
+     * @param values The elements in ascending order, none of them null.
+     * @return The new list.
+     * @throws IllegalArgumentException If the elements are not sorted.
+     */
+    public static PackedSortedList<Integer> ofInts(MyList<Integer> values) {
+        long[] longs = new long[values.size()];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = values.get(i);
+        return new PackedSortedList<>(longs, value -> (int) value);
+    }
+
+    /**
+     * Packs sorted {@code long} values.
+     * @param values The values in ascending order, the array is not kept.
+     * @return The new list.
+     * @throws IllegalArgumentException If the values are not sorted.
+     */
+    public static PackedSortedList<Long> ofLongs(long[] values) {
+        return new PackedSortedList<>(values, Long::valueOf);
+    }
+
+    /**
+     * Packs a sorted list of {@code long} values, such as one sorted by {@link QuickSort#runSorting}.
+     * @param values The values in ascending order.
+     * @return The new list.
+     * @throws IllegalArgumentException If the values are not sorted.
+     */
+    public static PackedSortedList<Long> ofLongs(MyLongList values) {
+        long[] longs = new long[values.size()];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = values.get(i);
+        return new PackedSortedList<>(longs, Long::valueOf);
+    }
+
+    /**
+     * Packs a sorted list of {@code Long} elements.
+     * @param values The elements in ascending order, none of them null.
+     * @return The new list.
+     * @throws IllegalArgumentException If the elements are not sorted.
+     */
+    public static PackedSortedList<Long> ofLongs(MyList<Long> values) {
+        long[] longs = new long[values.size()];
+        for (int i = 0; i < longs.length; i++)
+            longs[i] = values.get(i);
+        return new PackedSortedList<>(longs, Long::valueOf);
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean add(E element) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean addAll(int index, E[] elements) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean addAll(MyList<? extends E> elements) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * Returns the specified element, decoding its block up to it.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public E get(int index) {
+        return boxing.apply(getLong(index));
+    }
+
+    /**
+     * Returns the specified value without boxing it.
+     * @param index Indicates the value to be returned.
+     * @return The value that was requested.
+     */
+    public long getLong(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        int block = index >>> BLOCK_SHIFT;
+        long value = firsts[block];
+        int width = widths[block];
+        if (width == 0)
+            return value;
+        long bit = (long) starts[block] << 6;
+        for (int i = index & BLOCK_MASK; i > 0; i--) {
+            value += read(bit, width);
+            bit += width;
+        }
+        return value;
+    }
+
+    /**
+     * Not supported, the list cannot be changed.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public E set(int index, E element) {
+        throw new UnsupportedOperationException("PackedSortedList cannot be changed");
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Indicates whether the array is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return An iterator over the elements in ascending order.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Cursor cursor = new Cursor(0, size);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return boxing.apply(cursor.nextLong());
+            }
+        };
+    }
+
+    /**
+     * @return A spliterator over the elements in ascending order,
+     * it decodes the values as it goes rather than by index.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * @return An iterator over the values in ascending order, without boxing them.
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        return new Cursor(0, size);
+    }
+
+    /**
+     * Returns the values from {@code from}, inclusive, to {@code to}, exclusive.
+     * The first value is found through the skip index, the rest are decoded one after another.
+     * @param from The smallest value of the range.
+     * @param to The value after the range, it is not included.
+     * @return An iterator over the values of the range in ascending order,
+     * empty if {@code from} is not less than {@code to}.
+     */
+    public PrimitiveIterator.OfLong range(long from, long to) {
+        int start = lowerBound(from);
+        return new Cursor(start, Math.max(start, lowerBound(to)));
+    }
+
+    /**
+     * @param value The value to search for.
+     * @return Whether the list contains the value.
+     */
+    public boolean contains(long value) {
+        int block = blockLowerBound(value);
+        if (block < firsts.length && firsts[block] == value)
+            return true;
+        if (block == 0)
+            return false;
+        block--;
+        int width = widths[block];
+        if (width == 0)
+            return false;
+        long current = firsts[block];
+        long bit = (long) starts[block] << 6;
+        int count = Math.min(size - (block << BLOCK_SHIFT), BLOCK_SIZE);
+        for (int i = 1; i < count; i++) {
+            current += read(bit, width);
+            if (current >= value)
+                return current == value;
+            bit += width;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the first value that is not less than the given one,
+     * that is the number of the values that are less than it.
+     * @param value The value to compare with.
+     * @return The index, {@code size()} if all the values are less.
+     */
+    public int lowerBound(long value) {
+        int block = blockLowerBound(value);
+        if (block == 0)
+            return 0;
+        block--;
+        int from = block << BLOCK_SHIFT;
+        int to = Math.min(size, from + BLOCK_SIZE);
+        int width = widths[block];
+        if (width == 0)
+            return to;
+        long current = firsts[block];
+        long bit = (long) starts[block] << 6;
+        for (int i = from + 1; i < to; i++) {
+            current += read(bit, width);
+            if (current >= value)
+                return i;
+            bit += width;
+        }
+        return to;
+    }
+
+    /**
+     * @return The number of bytes of the arrays that store the values,
+     * without the headers of the arrays and of the list.
+     */
+    public long packedBytes() {
+        return (long) words.length * Long.BYTES + (long) firsts.length * Long.BYTES
+                + (long) starts.length * Integer.BYTES + widths.length;
+    }
+
+    /**
+     * @param value The value to compare with.
+     * @return The index of the first block whose first value is not less than the given one.
+     */
+    private int blockLowerBound(long value) {
+        int low = 0;
+        int high = firsts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (firsts[middle] < value)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Reads a packed difference, it may span two words.
+     * @param bit The position of the first bit of the difference.
+     * @param width The number of bits, from 1 to 64.
+     * @return The difference.
+     */
+    private long read(long bit, int width) {
+        int word = (int) (bit >>> 6);
+        int shift = (int) bit & (Long.SIZE - 1);
+        long value = words[word] >>> shift;
+        if (shift + width > Long.SIZE)
+            value |= words[word + 1] << (Long.SIZE - shift);
+        return width == Long.SIZE ? value : value & ((1L << width) - 1);
+    }
+
+    /**
+     * Packs a difference into the words that are still zero.
+     * @param bit The position of the first bit of the difference.
+     * @param value The difference, it fits into the width.
+     * @param width The number of bits, from 1 to 64.
+     */
+    private void write(long bit, long value, int width) {
+        int word = (int) (bit >>> 6);
+        int shift = (int) bit & (Long.SIZE - 1);
+        words[word] |= value << shift;
+        if (shift + width > Long.SIZE)
+            words[word + 1] |= value >>> (Long.SIZE - shift);
+    }
+
+    /**
+     * Decodes all the values of a block into the buffer.
+     * @param block The index of the block.
+     * @param buffer Receives the values, it has room for a block.
+     */
+    private void decode(int block, long[] buffer) {
+        long value = firsts[block];
+        int count = Math.min(size - (block << BLOCK_SHIFT), BLOCK_SIZE);
+        int width = widths[block];
+        if (width == 0) {
+            Arrays.fill(buffer, 0, count, value);
+            return;
+        }
+        long[] words = this.words;
+        long mask = -1L >>> (Long.SIZE - width);
+        int word = starts[block];
+        long current = words[word];
+        int shift = 0;
+        buffer[0] = value;
+        for (int i = 1; i < count; i++) {
+            long difference = current >>> shift;
+            shift += width;
+            if (shift >= Long.SIZE) {
+                shift -= Long.SIZE;
+                current = words[++word];
+                if (shift > 0)
+                    difference |= current << (width - shift);
+            }
+            value += difference & mask;
+            buffer[i] = value;
+        }
+    }
+
+    /**
+     * Iterates over a range of indexes, decoding a whole block at a time.
+     */
+    private final class Cursor implements PrimitiveIterator.OfLong {
+        private final long[] buffer = new long[BLOCK_SIZE];
+        private final int end;
+        private int index;
+
+        private Cursor(int from, int end) {
+            this.end = end;
+            this.index = from;
+            if (from < end)
+                decode(from >>> BLOCK_SHIFT, buffer);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        public long nextLong() {
+            if (index >= end)
+                throw new NoSuchElementException();
+            long value = buffer[index & BLOCK_MASK];
+            index++;
+            if ((index & BLOCK_MASK) == 0 && index < end)
+                decode(index >>> BLOCK_SHIFT, buffer);
+            return value;
+        }
+    }
+}
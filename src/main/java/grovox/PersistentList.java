@@ -0,0 +1,719 @@
+package grovox;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *  This is an implementation of the {@link MyList} interface as a persistent vector:
+ *  a tree with up to 32 children in every node and the elements in the leaves,
+ *  so that {@link #snapshot()} returns an unchangeable copy of the list in O(1) time
+ *  and the list can go on changing while readers use the snapshot.
+ *  The last elements are kept in a tail outside of the tree, a full tail becomes a new leaf.
+ *  <p>
+ *  Every node remembers the list that created it, and the list changes its own nodes
+ *  in place, so filling a list allocates little more than the leaves. A snapshot makes all
+ *  the existing nodes shared: the next {@code add} or {@code set} copies only the nodes
+ *  on the path to the element, O(log₃₂ n) of them, and the snapshot does not see the change.
+ *  <p>
+ *  {@code addAll} with another {@code PersistentList} shares the tree of the other list,
+ *  the two trees are joined at their roots in O(log n) time. The joined nodes may have children
+ *  that are not full, such nodes keep the sizes of their children, as in a relaxed radix
+ *  balanced tree, and the search goes by the sizes there. Removing the last element takes
+ *  O(log n) time, while inserting or removing an element anywhere else rebuilds the tree in O(n).
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class PersistentList<E> implements MyList<E> {
+    /**
+     * The number of bits of an index that choose the child at one level of the tree.
+     */
+    private static final int BITS = 5;
+    /**
+     * The maximum number of children of a node and of elements of a leaf.
+     */
+    private static final int WIDTH = 1 << BITS;
+    /**
+     * Stores the maximum number of elements.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The top of the tree, a node without children if the tree is empty.
+     */
+    private Node root;
+    /**
+     * The number of bits of an index below the children of the root,
+     * {@code BITS} if the children are leaves.
+     */
+    private int shift;
+    private int size;
+    /**
+     * The last elements, only the first {@code tailSize} of them are in use.
+     * It is never empty unless the list is.
+     */
+    private Object[] tail;
+    private int tailSize;
+    /**
+     * Marks the nodes that this list may change in place, null for a snapshot.
+     */
+    private Object edit;
+
+    /**
+     * The constructor that creates an empty list.
+     */
+    public PersistentList() {
+        this.edit = new Object();
+        this.root = new Node(edit, new Object[WIDTH]);
+        this.shift = BITS;
+        this.tail = new Object[WIDTH];
+    }
+
+    private PersistentList(Node root, int shift, int size, Object[] tail, int tailSize, Object edit) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+        this.tail = tail;
+        this.tailSize = tailSize;
+        this.edit = edit;
+    }
+
+    /**
+     * Returns an unchangeable copy of the list that shares the tree with it.
+     * The nodes of this list become shared, so the next changes of this list copy them.
+     * @return The snapshot, or this list if it is a snapshot already.
+     */
+    public PersistentList<E> snapshot() {
+        if (edit == null)
+            return this;
+        edit = new Object();
+        return new PersistentList<>(root, shift, size, Arrays.copyOf(tail, tailSize), tailSize, null);
+    }
+
+    /**
+     * Returns a list that starts with the elements of this one and can be changed
+     * without changing this one, the two share the tree until they change it.
+     * @return The new list.
+     */
+    public PersistentList<E> mutableCopy() {
+        PersistentList<E> snapshot = snapshot();
+        return new PersistentList<>(snapshot.root, snapshot.shift, snapshot.size,
+                Arrays.copyOf(snapshot.tail, WIDTH), snapshot.tailSize, new Object());
+    }
+
+    /**
+     * @return Whether this list is a snapshot, which cannot be changed.
+     */
+    public boolean isSnapshot() {
+        return edit == null;
+    }
+
+    /**
+     * Adds an element to the end of the list.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public boolean add(E element) {
+        checkWritable();
+        if (size == MAX_SIZE)
+            throw new OutOfMemoryError();
+        if (tailSize == WIDTH) {
+            pushLeaf(new Node(edit, tail));
+            tail = new Object[WIDTH];
+            tailSize = 0;
+        }
+        tail[tailSize++] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds an element to the specified position, the tree is rebuilt
+     * unless the position is the end of the list.
+     * @param index The place where the element is to be added.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        checkWritable();
+        checkAddIndex(index);
+        if (index == size)
+            return add(element);
+        Object[] elements = toArray(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        rebuild(elements, size + 1);
+        return true;
+    }
+
+    /**
+     * Adds an array of objects to the end of the list.
+     * @param elements An array of objects to add.
+     * @return whether the add operation was successful.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        checkWritable();
+        if (elements.length == 0)
+            return false;
+        if (elements.length > MAX_SIZE - size)
+            throw new OutOfMemoryError();
+        for (E element : elements)
+            add(element);
+        return true;
+    }
+
+    /**
+     * Inserts an array of objects at the specified position, rebuilding the tree once
+     * unless the position is the end of the list.
+     * @param index The place where the first element is to be added.
+     * @param elements An array of objects to add.
+     * @return whether the add operation was successful.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public boolean addAll(int index, E[] elements) {
+        checkWritable();
+        checkAddIndex(index);
+        if (index == size)
+            return addAll(elements);
+        if (elements.length == 0)
+            return false;
+        if (elements.length > MAX_SIZE - size)
+            throw new OutOfMemoryError();
+        Object[] all = toArray(size + elements.length);
+        System.arraycopy(all, index, all, index + elements.length, size - index);
+        System.arraycopy(elements, 0, all, index, elements.length);
+        rebuild(all, all.length);
+        return true;
+    }
+
+    /**
+     * Adds all the elements of another list to the end of this one.
+     * The tree of another {@code PersistentList} is not copied but joined to this tree,
+     * after the other list has been turned into a snapshot, which takes O(log n) time.
+     * @param elements The list whose elements should be added, it may be this list itself.
+     * @return whether the add operation was successful.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public boolean addAll(MyList<? extends E> elements) {
+        checkWritable();
+        if (elements instanceof PersistentList)
+            return join(((PersistentList<? extends E>) elements).snapshot());
+        return MyList.super.addAll(elements);
+    }
+
+    /**
+     * Removes the specified element from the list, the tree is rebuilt
+     * unless it is the last element.
+     * @param index The place where the element should be deleted.
+     * @return Deleted Item.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public E remove(int index) {
+        checkWritable();
+        checkIndex(index);
+        if (index == size - 1)
+            return removeLast();
+        Object[] elements = toArray(size);
+        E removed = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        rebuild(elements, size - 1);
+        return removed;
+    }
+
+    /**
+     * Removes the elements from {@code from}, inclusive, to {@code to}, exclusive,
+     * rebuilding the tree once.
+     * @param from The index of the first element to remove.
+     * @param to The index after the last element to remove.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public void removeRange(int from, int to) {
+        checkWritable();
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        if (from == to)
+            return;
+        Object[] elements = toArray(size);
+        System.arraycopy(elements, to, elements, from, size - to);
+        rebuild(elements, size - (to - from));
+    }
+
+    /**
+     * Removes all the elements from the list, the snapshots keep theirs.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public void clear() {
+        checkWritable();
+        root = new Node(edit, new Object[WIDTH]);
+        shift = BITS;
+        size = 0;
+        tail = new Object[WIDTH];
+        tailSize = 0;
+    }
+
+    /**
+     * Returns the specified element.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        int tailOffset = size - tailSize;
+        if (index >= tailOffset)
+            return (E) tail[index - tailOffset];
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            int child = slot(node, level, index);
+            index -= before(node, level, child);
+            node = (Node) node.array[child];
+        }
+        return (E) node.array[index];
+    }
+
+    /**
+     * Replaces the specified element. The nodes on the path to it are copied
+     * if they are shared with a snapshot, otherwise they are changed in place.
+     * @param index The place where the element is replaced.
+     * @param element The new element.
+     * @return The replaced element.
+     * @throws UnsupportedOperationException If this list is a snapshot.
+     */
+    @Override
+    public E set(int index, E element) {
+        checkWritable();
+        checkIndex(index);
+        int tailOffset = size - tailSize;
+        Object[] elements;
+        if (index >= tailOffset) {
+            elements = tail;
+            index -= tailOffset;
+        } else {
+            root = editable(root);
+            Node node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int child = slot(node, level, index);
+                index -= before(node, level, child);
+                Node next = editable((Node) node.array[child]);
+                node.array[child] = next;
+                node = next;
+            }
+            elements = node.array;
+        }
+        E replaced = (E) elements[index];
+        elements[index] = element;
+        return replaced;
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Indicates whether the list is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator that goes through one leaf at a time.
+     * @return An iterator over the elements.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf = {};
+            /**
+             * The index of the first element of the leaf.
+             */
+            private int leafStart;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public E next() {
+                if (index >= size)
+                    throw new NoSuchElementException();
+                if (index - leafStart >= leaf.length)
+                    findLeaf();
+                return (E) leaf[index++ - leafStart];
+            }
+
+            private void findLeaf() {
+                int tailOffset = size - tailSize;
+                if (index >= tailOffset) {
+                    leaf = tail;
+                    leafStart = tailOffset;
+                    return;
+                }
+                Node node = root;
+                int rest = index;
+                for (int level = shift; level > 0; level -= BITS) {
+                    int child = slot(node, level, rest);
+                    rest -= before(node, level, child);
+                    node = (Node) node.array[child];
+                }
+                leaf = node.array;
+                leafStart = index - rest;
+            }
+        };
+    }
+
+    /**
+     * Returns the child of the node that holds the element.
+     * A node without sizes has all children full except the last one.
+     * A child holds at most {@code 1 << level} elements, so the search
+     * by sizes starts from the child a full tree would have.
+     * @param node The node.
+     * @param level The number of bits of an index below the children of the node.
+     * @param index The index of the element within the node.
+     * @return The index of the child.
+     */
+    private static int slot(Node node, int level, int index) {
+        int child = index >>> level;
+        if (node.sizes != null)
+            while (node.sizes[child] <= index)
+                child++;
+        return child;
+    }
+
+    /**
+     * @return The number of elements in the children of the node before the given one.
+     */
+    private static int before(Node node, int level, int child) {
+        if (child == 0)
+            return 0;
+        return node.sizes == null ? child << level : node.sizes[child - 1];
+    }
+
+    /**
+     * @return The number of children of a node that is not a leaf.
+     */
+    private static int count(Node node) {
+        if (node.sizes != null)
+            return node.sizes.length;
+        int count = WIDTH;
+        while (count > 0 && node.array[count - 1] == null)
+            count--;
+        return count;
+    }
+
+    /**
+     * Counts the elements under a node by going down its last children.
+     * @param node The node.
+     * @param level The number of bits of an index below the children of the node, 0 for a leaf.
+     * @return The number of elements.
+     */
+    private static int subtreeSize(Node node, int level) {
+        if (level == 0)
+            return node.array.length;
+        if (node.sizes != null)
+            return node.sizes[node.sizes.length - 1];
+        int count = count(node);
+        if (count == 0)
+            return 0;
+        return ((count - 1) << level) + subtreeSize((Node) node.array[count - 1], level - BITS);
+    }
+
+    /**
+     * @return The number of elements under each child of the node.
+     */
+    private static int[] childSizes(Node node, int level) {
+        int count = count(node);
+        int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (node.sizes != null)
+                sizes[i] = node.sizes[i] - (i == 0 ? 0 : node.sizes[i - 1]);
+            else
+                sizes[i] = i < count - 1 ? 1 << level : subtreeSize((Node) node.array[i], level - BITS);
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the node itself if this list may change it, or a copy that this list owns.
+     */
+    private Node editable(Node node) {
+        if (node.edit == edit)
+            return node;
+        Node copy = new Node(edit, node.array.clone());
+        if (node.sizes != null)
+            copy.sizes = node.sizes.clone();
+        return copy;
+    }
+
+    /**
+     * Appends a leaf after the last one of the tree, the tree gets one level higher if it is full.
+     * @param leaf The leaf.
+     */
+    private void pushLeaf(Node leaf) {
+        Node pushed = push(root, shift, leaf);
+        if (pushed != null) {
+            root = pushed;
+            return;
+        }
+        Node newRoot = new Node(edit, new Object[WIDTH]);
+        newRoot.array[0] = root;
+        newRoot.array[1] = path(shift, leaf);
+        int rootSize = subtreeSize(root, shift);
+        if (rootSize != 1L << (shift + BITS))
+            newRoot.sizes = new int[]{rootSize, rootSize + leaf.array.length};
+        root = newRoot;
+        shift += BITS;
+    }
+
+    /**
+     * Appends a leaf under the node, into its last child if there is room there.
+     * @param node The node.
+     * @param level The number of bits of an index below the children of the node.
+     * @param leaf The leaf.
+     * @return The node with the leaf, or null if there is no room under it.
+     */
+    private Node push(Node node, int level, Node leaf) {
+        int count = count(node);
+        if (level > BITS && count > 0) {
+            Node pushed = push((Node) node.array[count - 1], level - BITS, leaf);
+            if (pushed != null) {
+                Node result = editable(node);
+                result.array[count - 1] = pushed;
+                if (result.sizes != null)
+                    result.sizes[count - 1] += leaf.array.length;
+                return result;
+            }
+        }
+        if (count == WIDTH)
+            return null;
+        Node result = editable(node);
+        if (result.sizes == null && count > 0
+                && subtreeSize((Node) result.array[count - 1], level - BITS) != 1 << level)
+            result.sizes = cumulative(childSizes(result, level));
+        result.array[count] = path(level - BITS, leaf);
+        if (result.sizes != null) {
+            result.sizes = Arrays.copyOf(result.sizes, count + 1);
+            result.sizes[count] = (count == 0 ? 0 : result.sizes[count - 1]) + leaf.array.length;
+        }
+        return result;
+    }
+
+    /**
+     * @return The leaf under as many nodes with one child as the level needs.
+     */
+    private Node path(int level, Node leaf) {
+        if (level == 0)
+            return leaf;
+        Node node = new Node(edit, new Object[WIDTH]);
+        node.array[0] = path(level - BITS, leaf);
+        return node;
+    }
+
+    private static int[] cumulative(int[] sizes) {
+        for (int i = 1; i < sizes.length; i++)
+            sizes[i] += sizes[i - 1];
+        return sizes;
+    }
+
+    /**
+     * Removes the last element. If the tail becomes empty, the last leaf
+     * of the tree becomes the tail and the tree gets lower if the root has one child left.
+     * @return The removed element.
+     */
+    private E removeLast() {
+        E removed = (E) tail[tailSize - 1];
+        tail[--tailSize] = null;
+        size--;
+        if (tailSize == 0 && size > 0) {
+            Node leaf = root;
+            for (int level = shift; level > 0; level -= BITS)
+                leaf = (Node) leaf.array[count(leaf) - 1];
+            root = pop(root, shift, leaf.array.length);
+            if (root == null) {
+                root = new Node(edit, new Object[WIDTH]);
+                shift = BITS;
+            }
+            while (shift > BITS && count(root) == 1) {
+                root = (Node) root.array[0];
+                shift -= BITS;
+            }
+            tail = Arrays.copyOf(leaf.array, WIDTH);
+            tailSize = leaf.array.length;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the last leaf under the node.
+     * @param node The node.
+     * @param level The number of bits of an index below the children of the node.
+     * @param leafSize The number of elements of the leaf.
+     * @return The node without the leaf, or null if nothing is left under it.
+     */
+    private Node pop(Node node, int level, int leafSize) {
+        int count = count(node);
+        if (level > BITS) {
+            Node popped = pop((Node) node.array[count - 1], level - BITS, leafSize);
+            if (popped != null) {
+                Node result = editable(node);
+                result.array[count - 1] = popped;
+                if (result.sizes != null)
+                    result.sizes[count - 1] -= leafSize;
+                return result;
+            }
+        }
+        if (count == 1)
+            return null;
+        Node result = editable(node);
+        result.array[count - 1] = null;
+        if (result.sizes != null)
+            result.sizes = Arrays.copyOf(result.sizes, count - 1);
+        return result;
+    }
+
+    /**
+     * Appends the elements of a snapshot by joining its tree to this one. The tail of this list
+     * becomes a leaf, the lower tree is lifted to the height of the other, then the children
+     * of both roots go into one node if they fit, or both roots become the children of a new one.
+     * @param other The snapshot.
+     * @return whether the add operation was successful.
+     */
+    private boolean join(PersistentList<? extends E> other) {
+        if (other.size == 0)
+            return false;
+        if (other.size > MAX_SIZE - size)
+            throw new OutOfMemoryError();
+        if (other.size == other.tailSize) {
+            for (int i = 0; i < other.tailSize; i++)
+                add((E) other.tail[i]);
+            return true;
+        }
+        if (tailSize > 0)
+            pushLeaf(new Node(edit, Arrays.copyOf(tail, tailSize)));
+        if (size == 0) {
+            root = other.root;
+            shift = other.shift;
+        } else {
+            Node left = root;
+            Node right = other.root;
+            int level = Math.max(shift, other.shift);
+            for (int lift = shift; lift < level; lift += BITS)
+                left = path(BITS, left);
+            for (int lift = other.shift; lift < level; lift += BITS)
+                right = path(BITS, right);
+            int[] leftSizes = childSizes(left, level);
+            int[] rightSizes = childSizes(right, level);
+            if (leftSizes.length + rightSizes.length <= WIDTH) {
+                Node merged = new Node(edit, new Object[WIDTH]);
+                System.arraycopy(left.array, 0, merged.array, 0, leftSizes.length);
+                System.arraycopy(right.array, 0, merged.array, leftSizes.length, rightSizes.length);
+                int[] sizes = Arrays.copyOf(leftSizes, leftSizes.length + rightSizes.length);
+                System.arraycopy(rightSizes, 0, sizes, leftSizes.length, rightSizes.length);
+                for (int i = 0; i < sizes.length - 1; i++)
+                    if (sizes[i] != 1 << level) {
+                        merged.sizes = cumulative(sizes);
+                        break;
+                    }
+                root = merged;
+                shift = level;
+            } else {
+                Node joined = new Node(edit, new Object[WIDTH]);
+                joined.array[0] = left;
+                joined.array[1] = right;
+                if (size != 1L << (level + BITS))
+                    joined.sizes = new int[]{size, size + other.size - other.tailSize};
+                root = joined;
+                shift = level + BITS;
+            }
+        }
+        tail = Arrays.copyOf(other.tail, WIDTH);
+        tailSize = other.tailSize;
+        size += other.size;
+        return true;
+    }
+
+    /**
+     * Copies the elements into a new array.
+     * @param length The length of the array, at least {@code size()}.
+     * @return The array.
+     */
+    private Object[] toArray(int length) {
+        Object[] elements = new Object[length];
+        int i = 0;
+        for (E element : this)
+            elements[i++] = element;
+        return elements;
+    }
+
+    /**
+     * Replaces the elements by the first {@code count} elements of the array.
+     */
+    private void rebuild(Object[] elements, int count) {
+        clear();
+        for (int i = 0; i < count; i++)
+            add((E) elements[i]);
+    }
+
+    private void checkWritable() {
+        if (edit == null)
+            throw new UnsupportedOperationException("A snapshot cannot be changed");
+    }
+
+    /**
+     *  Checks whether it is possible to add an element to this position.
+     * @param index The position.
+     */
+    private void checkAddIndex(int index) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    /**
+     *  Checks that there is an element at this position.
+     * @param index The position.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    /**
+     * A node of the tree. A leaf holds the elements in an array of their number,
+     * any other node holds the children in an array of {@code WIDTH}, the unused places are null.
+     */
+    private static final class Node {
+        /**
+         * The list that may change this node in place.
+         */
+        final Object edit;
+        final Object[] array;
+        /**
+         * The number of elements under every child and the children before it,
+         * null if all children are full except the last one.
+         */
+        int[] sizes;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+    }
+}
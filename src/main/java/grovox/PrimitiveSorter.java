@@ -0,0 +1,40 @@
+package grovox;
+
+/**
+ *  A sorting engine for ranges of primitive arrays that {@link QuickSort} finds at runtime.
+ *  The vector sort implements it in the {@code vector} source set, which is the only part
+ *  of the build that is compiled against the incubating {@code jdk.incubator.vector} module,
+ *  so the rest of the library neither needs the module nor refers to the engine directly.
+ * @author Max Artemov
+ */
+interface PrimitiveSorter {
+    /**
+     * @return Whether the engine can be used on this hardware.
+     */
+    boolean isSupported();
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    void sort(int[] data, int from, int to);
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    void sort(long[] data, int from, int to);
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive
+     * in the order of {@link Double#compare(double, double)}.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    void sort(double[] data, int from, int to);
+}
@@ -0,0 +1,127 @@
+package grovox;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * The selection engine behind {@code QuickSort.select}, {@code QuickSort.partialSort}
+ * and {@code QuickSort.topK}. The selection splits the range with
+ * {@code IntroSort.partOfSort} like the sorting does, but goes on only into the part
+ * that holds the wanted index, so it takes O(n) expected time. If the splitting
+ * gets deeper than the depth limit of the sorting, the rest is sorted by
+ * {@link IntroSort}, so the worst case is O(n log n).
+ * The top k of a sequence that cannot be kept in memory are collected
+ * in a heap of k elements, which takes O(n log k) time.
+ *@author Max Artemov
+ */
+final class QuickSelect {
+
+    private QuickSelect() {
+    }
+
+    /**
+     * Moves the element that would be at index {@code k} after sorting the range to index {@code k},
+     * the elements before it are not greater and the elements after it are not less than it.
+     * @param data The array with the range.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param k The index of the wanted element, within the range.
+     * @param comparator A comparator that will compare items.
+     * @param <E> The type of the elements.
+     */
+    static <E> void select(Object[] data, int from, int to, int k, Comparator<? super E> comparator){
+        int depth = IntroSort.depthLimit(to - from);
+        while (to - from > IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0)
+                break;
+            int pivot = IntroSort.partOfSort(data, from, to, comparator);
+            if (k == pivot)
+                return;
+            if (k < pivot)
+                to = pivot;
+            else
+                from = pivot + 1;
+        }
+        IntroSort.sort(data, from, to, comparator);
+    }
+
+    /**
+     * Moves the element that would be at index {@code k} after sorting the range
+     * to index {@code k}, using only the comparisons and swaps of the data.
+     * @param data The data with the range.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param k The index of the wanted element, within the range.
+     */
+    static void select(IntroSort.Sortable data, int from, int to, int k){
+        int depth = IntroSort.depthLimit(to - from);
+        while (to - from > IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0)
+                break;
+            int pivot = IntroSort.partOfSort(data, from, to);
+            if (k == pivot)
+                return;
+            if (k < pivot)
+                to = pivot;
+            else
+                from = pivot + 1;
+        }
+        IntroSort.sort(data, from, to);
+    }
+
+    /**
+     * Collects the k smallest elements of the sequence. They are kept in a heap
+     * with the greatest of them on the top, every next element that is less
+     * than the top replaces it.
+     * @param input The elements, they are read once.
+     * @param k The number of elements to collect.
+     * @param comparator A comparator that will compare items.
+     * @param <E> The type of the elements.
+     * @return The k smallest elements in ascending order, or all of them if there are fewer.
+     */
+    static <E> MyArrayList<E> topK(Iterator<? extends E> input, int k, Comparator<? super E> comparator){
+        Object[] heap = new Object[Math.min(k, 1024)];
+        int size = 0;
+        while (input.hasNext()) {
+            E element = input.next();
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, 2L * heap.length));
+                heap[size] = element;
+                siftUp(heap, size++, comparator);
+            } else if (k > 0 && comparator.compare(element, (E) heap[0]) < 0) {
+                heap[0] = element;
+                siftDown(heap, 0, size, comparator);
+            }
+        }
+        IntroSort.sort(heap, 0, size, comparator);
+        return new MyArrayList<>(heap, size);
+    }
+
+    private static <E> void siftUp(Object[] heap, int node, Comparator<? super E> comparator){
+        Object element = heap[node];
+        while (node > 0) {
+            int parent = (node - 1) >>> 1;
+            if (comparator.compare((E) element, (E) heap[parent]) <= 0)
+                break;
+            heap[node] = heap[parent];
+            node = parent;
+        }
+        heap[node] = element;
+    }
+
+    private static <E> void siftDown(Object[] heap, int node, int length, Comparator<? super E> comparator){
+        Object element = heap[node];
+        int child;
+        while ((child = 2 * node + 1) < length) {
+            if (child + 1 < length && comparator.compare((E) heap[child], (E) heap[child + 1]) < 0)
+                child++;
+            if (comparator.compare((E) element, (E) heap[child]) >= 0)
+                break;
+            heap[node] = heap[child];
+            node = child;
+        }
+        heap[node] = element;
+    }
+}
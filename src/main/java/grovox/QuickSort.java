@@ -1,17 +1,43 @@
 package grovox;
 
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * This is an abstract class that implements a sorting algorithm for an ArrayList.
+ * The sorting itself is done by {@link IntroSort}, so it takes O(n log n) time
+ * and O(log n) stack on any input.
+ * The array lists of this package are sorted directly in their arrays,
+ * any other {@link MyList} is sorted through {@code get} and {@code set}.
+ * The arrays of primitives are sorted by {@code VectorSort} if the application runs with
+ * {@code --add-modules jdk.incubator.vector} on hardware with vectors of 256 bits or more,
+ * and by {@link IntroSort} otherwise.
+ * While a {@link MetricsListener} is set in {@link Metrics}, every sorting counts
+ * its comparisons, swaps and splits and reports them with the wall time.
  *@author Max Artemov
  */
 public abstract class QuickSort{
+    /**
+     * The size of the part below which the parallel sorting
+     * sorts the part sequentially instead of forking new tasks.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+    /**
+     * The engine that sorts the arrays of primitives, or null if they are sorted by {@link IntroSort}.
+     * Setting the {@code grovox.vectorSort} system property to {@code false} turns it off.
+     */
+    private static final PrimitiveSorter VECTOR_SORTER = vectorSorter();
 
     /**
      * Starts the sorting process by running the
-     * {@code quicksort(List<E> data, Comparator<E> comparator)} method.
-     * If an object with data to sort, let it return false.
+     * {@code IntroSort.sort} method.
+     * If an object with data to sort is empty, let it return false.
      * This method accepts a comparator for comparison.
      * @param data The data store that will be sorted.
      * @param comparator A comparator that will compare items when sorting.
@@ -21,14 +47,22 @@ public abstract class QuickSort{
     public static <E> boolean runSorting(MyList<E> data, Comparator<E> comparator){
         if (data.isEmpty())
             return false;
-        quicksort(data, comparator);
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            measure(listener, data instanceof MyArrayList
+                    ? sortable(((MyArrayList<E>) data).elementData(), comparator)
+                    : sortable(data, comparator), data.size(), null, 0);
+        else if (data instanceof MyArrayList)
+            IntroSort.sort(((MyArrayList<E>) data).elementData(), 0, data.size(), comparator);
+        else
+            IntroSort.sort(sortable(data, comparator), 0, data.size());
         return true;
     }
 
     /**
      *  Starts the sorting process by running the
-     * {@code quicksort(List<E> data)}  method.
-     *  If an object with data to sort, let it return false.
+     * {@code IntroSort.sort} method.
+     *  If an object with data to sort is empty, let it return false.
      *  This method accepts data that inherits Comparable
      *  and is able to compare itself with the same data.
      * @param data The data store that will be sorted.
@@ -36,139 +70,851 @@ public abstract class QuickSort{
      * @param <E> The type of data to be sorted.
      */
     public static <E extends Comparable<E>> boolean runSorting(MyList<E> data){
+        return runSorting(data, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the data like {@code runSorting(MyList<E> data, Comparator<E> comparator)},
+     * but both parts produced by {@code IntroSort.partOfSort} are sorted as separate tasks
+     * of the common {@link ForkJoinPool}.
+     * @param data The data store that will be sorted.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     */
+    public static <E> boolean runParallelSorting(MyList<E> data, Comparator<E> comparator){
+        return runParallelSorting(data, comparator, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts the data in parallel in the given pool. Parts that are smaller
+     * than the threshold are sorted sequentially in the task that got them.
+     * The calling thread waits until the sorting is finished.
+     * @param data The data store that will be sorted.
+     * @param comparator A comparator that will compare items when sorting.
+     * @param pool The pool in which the sorting tasks are run.
+     * @param threshold The size of the part below which no new tasks are forked.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     * @throws IllegalArgumentException If the threshold is less than one.
+     */
+    public static <E> boolean runParallelSorting(MyList<E> data, Comparator<E> comparator,
+                                                 ForkJoinPool pool, int threshold){
+        if (threshold < 1)
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
         if (data.isEmpty())
             return false;
-        quicksort(data);
+        Object[] array = data instanceof MyArrayList ? ((MyArrayList<E>) data).elementData() : null;
+        MetricsListener listener = Metrics.listener;
+        if (listener != null) {
+            measure(listener, array != null ? sortable(array, comparator) : sortable(data, comparator),
+                    data.size(), pool, threshold);
+            return true;
+        }
+        IntroSort.Sortable sortable = array == null ? sortable(data, comparator) : null;
+        pool.invoke(new SortTask<>(array, sortable, comparator, threshold, 0, data.size(),
+                IntroSort.depthLimit(data.size())));
         return true;
     }
 
     /**
-     * The quicksort method,
-     * this method launches its
-     * {@code quicksort(List<E> data, Comparator<E> comparator, int start, int end)}
-     * extended version with the number of the start and end elements for sorting.
+     * Sorts the data that is able to compare itself in parallel
+     * in the common {@link ForkJoinPool}.
      * @param data The data store that will be sorted.
-     * @param comparator A comparator that will compare items when sorting.
+     * @return Was the sorting successful.
      * @param <E> The type of data to be sorted.
      */
-    private static <E> void quicksort(MyList<E> data, Comparator<E> comparator){
-        quicksort(data, comparator, 0, data.size() - 1);
+    public static <E extends Comparable<E>> boolean runParallelSorting(MyList<E> data){
+        return runParallelSorting(data, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
     }
 
     /**
-     * Runs the {@code partOfSort(List<E> data, Comparator<E> comparator, int left, int right)}
-     * method of sorting the array from the left element to the right element,
-     * taking from it the element where sorting stopped {@code int rightStart}.
-     * Next, this method launches itself with a range from left to int rightStart
-     * and once again itself from int rightStart to right. If, when starting this method,
-     * start >= end, the method ends.
+     * Sorts the data that is able to compare itself in parallel in the given pool.
      * @param data The data store that will be sorted.
+     * @param pool The pool in which the sorting tasks are run.
+     * @param threshold The size of the part below which no new tasks are forked.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     * @throws IllegalArgumentException If the threshold is less than one.
+     */
+    public static <E extends Comparable<E>> boolean runParallelSorting(MyList<E> data, ForkJoinPool pool, int threshold){
+        return runParallelSorting(data, Comparator.naturalOrder(), pool, threshold);
+    }
+
+    /**
+     * Finds the element that would be at index {@code k} if the data were sorted, without sorting it:
+     * the data is only rearranged so that this element is at index {@code k}, the elements before it
+     * are not greater and the elements after it are not less than it. It is done by {@link QuickSelect},
+     * which takes O(n) expected time, so {@code select(data, data.size() / 2, comparator)} is the median.
+     * @param data The data store in which the element is searched.
+     * @param k The index of the element in the sorted order.
+     * @param comparator A comparator that will compare items.
+     * @return The element at index {@code k}.
+     * @param <E> The type of data.
+     * @throws IndexOutOfBoundsException If {@code k} is not an index of the data.
+     */
+    public static <E> E select(MyList<E> data, int k, Comparator<E> comparator){
+        int size = data.size();
+        if (k < 0 || k >= size)
+            throw new IndexOutOfBoundsException("Index " + k + " out of bounds for length " + size);
+        if (data instanceof MyArrayList)
+            QuickSelect.select(((MyArrayList<E>) data).elementData(), 0, size, k, comparator);
+        else
+            QuickSelect.select(sortable(data, comparator), 0, size, k);
+        return data.get(k);
+    }
+
+    /**
+     * Finds the element that would be at index {@code k} if the data that is able to compare itself
+     * were sorted, like {@code select(MyList<E> data, int k, Comparator<E> comparator)}.
+     * @param data The data store in which the element is searched.
+     * @param k The index of the element in the sorted order.
+     * @return The element at index {@code k}.
+     * @param <E> The type of data.
+     * @throws IndexOutOfBoundsException If {@code k} is not an index of the data.
+     */
+    public static <E extends Comparable<E>> E select(MyList<E> data, int k){
+        return select(data, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Puts the k smallest elements in ascending order at the beginning of the data,
+     * the rest of the elements follow in no particular order. The k-th element is selected
+     * first, then only the elements before it are sorted, so it takes O(n + k log k) time.
+     * If an object with data to sort is empty or k is zero, let it return false.
+     * @param data The data store that will be partially sorted.
+     * @param k The number of the smallest elements to sort.
      * @param comparator A comparator that will compare items when sorting.
-     * @param start The element to sort.
-     * @param end The final element to sort.
+     * @return Was the sorting successful.
      * @param <E> The type of data to be sorted.
+     * @throws IndexOutOfBoundsException If {@code k} is negative or greater than the size of the data.
      */
-    private static <E> void quicksort(MyList<E> data, Comparator<E> comparator, int start, int end){
-        if (start >= end) return;
-        int rightStart = partOfSort(data, comparator, start, end);
-        quicksort(data, comparator, start, rightStart - 1);
-        quicksort(data, comparator, rightStart, end);
+    public static <E> boolean partialSort(MyList<E> data, int k, Comparator<E> comparator){
+        int size = data.size();
+        if (k < 0 || k > size)
+            throw new IndexOutOfBoundsException("Index " + k + " out of bounds for length " + size);
+        if (k == 0)
+            return false;
+        if (data instanceof MyArrayList) {
+            Object[] array = ((MyArrayList<E>) data).elementData();
+            QuickSelect.select(array, 0, size, k - 1, comparator);
+            IntroSort.sort(array, 0, k - 1, comparator);
+        } else {
+            IntroSort.Sortable sortable = sortable(data, comparator);
+            QuickSelect.select(sortable, 0, size, k - 1);
+            IntroSort.sort(sortable, 0, k - 1);
+        }
+        return true;
     }
 
     /**
-     * Takes the middle one between left and right as a reference element
-     * and assigns it as a reference element.
-     * Next, the cycle begins until left <= right, in which
-     * an element is searched from left to right, when compared through Comparator,
-     * more than the reference element is added to left + 1 and from right to left,
-     * an element less than the reference element is added to right plus
-     * one and if left <= right then these elements change.
+     * Puts the k smallest elements of the data that is able to compare itself in ascending order
+     * at the beginning, like {@code partialSort(MyList<E> data, int k, Comparator<E> comparator)}.
+     * @param data The data store that will be partially sorted.
+     * @param k The number of the smallest elements to sort.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     * @throws IndexOutOfBoundsException If {@code k} is negative or greater than the size of the data.
+     */
+    public static <E extends Comparable<E>> boolean partialSort(MyList<E> data, int k){
+        return partialSort(data, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Collects the k smallest elements of a sequence that is read only once, such as a stream
+     * ({@code QuickSort.topK(stream::iterator, k, comparator)}) or a list that should not be changed.
+     * Only k elements are kept in memory, in a heap, so it takes O(n log k) time.
+     * For the k greatest elements, such as a leaderboard, pass a reversed comparator.
+     * @param input The elements.
+     * @param k The number of elements to collect.
+     * @param comparator A comparator that will compare items.
+     * @return A new list with the k smallest elements in ascending order, or all of them if there are fewer.
+     * @param <E> The type of data.
+     * @throws IllegalArgumentException If {@code k} is negative.
+     */
+    public static <E> MyArrayList<E> topK(Iterable<? extends E> input, int k, Comparator<E> comparator){
+        if (k < 0)
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        return QuickSelect.topK(input.iterator(), k, comparator);
+    }
+
+    /**
+     * Sorts the data keeping the order of the elements that are equal, so a list that has been
+     * sorted by one field and then by another is ordered by the second field and then by the first.
+     * It is done by {@link MergeSort}, which merges the runs that are already in order,
+     * so the data that is sorted or reversed takes one pass, and the data that is almost sorted,
+     * such as appended records with a few late ones, takes close to it.
+     * If an object with data to sort is empty, let it return false.
      * @param data The data store that will be sorted.
      * @param comparator A comparator that will compare items when sorting.
-     * @param left The left edge of the sorted subarray.
-     * @param right The right edge of the sorted subarray.
-     * @return The final value of left.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     * @throws IllegalArgumentException If the comparator is found to be inconsistent.
+     */
+    public static <E> boolean runStableSorting(MyList<E> data, Comparator<E> comparator){
+        if (data.isEmpty())
+            return false;
+        Object[] values = elements(data);
+        MergeSort.sort(values, 0, data.size(), comparator);
+        setElements(data, values);
+        return true;
+    }
+
+    /**
+     * Sorts the data that is able to compare itself keeping the order of the elements that are equal,
+     * like {@code runStableSorting(MyList<E> data, Comparator<E> comparator)}.
+     * @param data The data store that will be sorted.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     */
+    public static <E extends Comparable<E>> boolean runStableSorting(MyList<E> data){
+        return runStableSorting(data, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the elements in ascending order of an {@code int} key, such as an id.
+     * The keys are extracted once into an array and sorted by {@link RadixSort},
+     * so the sorting takes O(n) time instead of O(n log n) comparisons.
+     * Unlike the other sortings, it is stable: the elements with equal keys keep their order.
+     * @param data The data store that will be sorted.
+     * @param key Extracts the key of an element, it is called once for every element.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     */
+    public static <E> boolean runSortingByIntKey(MyList<E> data, ToIntFunction<? super E> key){
+        if (data.isEmpty())
+            return false;
+        int size = data.size();
+        Object[] values = elements(data);
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = key.applyAsInt((E) values[i]);
+        RadixSort.sort(keys, values, size);
+        setElements(data, values);
+        return true;
+    }
+
+    /**
+     * Sorts the elements in ascending order of a {@code long} key, such as a timestamp,
+     * in the same way as {@link #runSortingByIntKey(MyList, ToIntFunction)}.
+     * @param data The data store that will be sorted.
+     * @param key Extracts the key of an element, it is called once for every element.
+     * @return Was the sorting successful.
+     * @param <E> The type of data to be sorted.
+     */
+    public static <E> boolean runSortingByLongKey(MyList<E> data, ToLongFunction<? super E> key){
+        if (data.isEmpty())
+            return false;
+        int size = data.size();
+        Object[] values = elements(data);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = key.applyAsLong((E) values[i]);
+        RadixSort.sort(keys, values, size);
+        setElements(data, values);
+        return true;
+    }
+
+    /**
+     * Sorts the elements in ascending order of a key that is costly to derive, such as
+     * a normalized name or a value looked up in other objects. The key of every element
+     * is derived once into an array that is sorted together with the elements, so the key
+     * function is called n times instead of twice in each of the O(n log n) comparisons.
+     * The sorted elements are written back in one pass.
+     * If an object with data to sort is empty, let it return false.
+     * @param data The data store that will be sorted.
+     * @param key Derives the key of an element, it is called once for every element.
+     * @return Was the sorting successful.
      * @param <E> The type of data to be sorted.
+     * @param <K> The type of the keys.
      */
+    public static <E, K extends Comparable<? super K>> boolean runSortingBy(MyList<E> data, Function<? super E, ? extends K> key){
+        if (data.isEmpty())
+            return false;
+        int size = data.size();
+        Object[] values = elements(data);
+        Object[] keys = new Object[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = key.apply((E) values[i]);
+        IntroSort.Sortable sortable = QuickSort.<K>sortable(keys, values);
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            measure(listener, sortable, size, null, 0);
+        else
+            IntroSort.sort(sortable, 0, size);
+        setElements(data, values);
+        return true;
+    }
 
-    private static <E> int partOfSort(MyList<E> data, Comparator<E> comparator, int left, int right){
-        E pivot = data.get((left + right) / 2);
+    /**
+     * Returns the order of the elements without moving them: the element that would be at
+     * index {@code i} after sorting is at index {@code permutation[i]} of the list.
+     * The equal elements keep their order, so the permutation is the same on every run
+     * and can sort several parallel lists with {@link #applyPermutation(int[], MyList[])}.
+     * @param data The data whose order is wanted, it is not changed.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The permutation, empty if the list is empty.
+     * @param <E> The type of data.
+     */
+    public static <E> int[] argsort(MyList<E> data, Comparator<E> comparator){
+        int size = data.size();
+        Object[] values = elements(data);
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++)
+            permutation[i] = i;
+        IntroSort.Sortable sortable = sortable(permutation, values, comparator);
+        MetricsListener listener = Metrics.listener;
+        if (listener != null && size > 0)
+            measure(listener, sortable, size, null, 0);
+        else
+            IntroSort.sort(sortable, 0, size);
+        return permutation;
+    }
 
-        while (left <= right) {
-            while (comparator.compare(data.get(left), pivot) < 0) left++;
-            while (comparator.compare(data.get(right), pivot) > 0) right--;
+    /**
+     * Returns the order of the data that is able to compare itself without moving it,
+     * like {@code argsort(MyList<E> data, Comparator<E> comparator)}.
+     * @param data The data whose order is wanted, it is not changed.
+     * @return The permutation, empty if the list is empty.
+     * @param <E> The type of data.
+     */
+    public static <E extends Comparable<E>> int[] argsort(MyList<E> data){
+        return argsort(data, Comparator.naturalOrder());
+    }
 
-            if(left <= right){
-                E temp = data.get(left);
-                data.set(left, data.get(right));
-                data.set(right, temp);
-                left++;
-                right--;
+    /**
+     * Reorders the lists so that the element at index {@code i} of every list is the one
+     * that was at index {@code permutation[i]}, such as the permutation returned by {@code argsort}.
+     * Every list is reordered in place by following the cycles of the permutation, holding
+     * one element at a time. The visited indexes are marked in the permutation itself,
+     * which is restored before the method returns.
+     * @param permutation Every index from 0 to {@code length - 1} exactly once.
+     * @param lists The lists to reorder, each one must have as many elements as the permutation.
+     * @throws IllegalArgumentException If the array is not a permutation or a list has another size,
+     * in which case nothing is changed.
+     * @throws UnsupportedOperationException If a list cannot {@code set} its elements,
+     * the lists before it have been reordered then.
+     */
+    public static void applyPermutation(int[] permutation, MyList<?>... lists){
+        int size = permutation.length;
+        for (MyList<?> list : lists)
+            if (list.size() != size)
+                throw new IllegalArgumentException("List of size " + list.size() + " does not match the permutation of length " + size);
+        checkPermutation(permutation);
+        for (MyList<?> list : lists)
+            permute(permutation, list);
+    }
+
+    private static void checkPermutation(int[] permutation){
+        int size = permutation.length;
+        for (int index : permutation)
+            if (index < 0 || index >= size)
+                throw new IllegalArgumentException("Index " + index + " out of bounds for permutation of length " + size);
+        try {
+            for (int i = 0; i < size; i++) {
+                int index = permutation[i] < 0 ? ~permutation[i] : permutation[i];
+                if (permutation[index] < 0)
+                    throw new IllegalArgumentException("Index " + index + " occurs twice in the permutation");
+                permutation[index] = ~permutation[index];
+            }
+        } finally {
+            unmark(permutation);
+        }
+    }
+
+    /**
+     * Moves the elements of one list along the cycles of the permutation.
+     * An index is marked as visited by storing its complement, which is negative.
+     * @param permutation A checked permutation of the indexes of the list.
+     * @param data The list to reorder.
+     * @param <E> The type of the elements.
+     */
+    private static <E> void permute(int[] permutation, MyList<E> data){
+        try {
+            for (int start = 0; start < permutation.length; start++) {
+                if (permutation[start] < 0)
+                    continue;
+                E first = data.get(start);
+                int i = start;
+                while (true) {
+                    int next = permutation[i];
+                    permutation[i] = ~next;
+                    if (next == start) {
+                        data.set(i, first);
+                        break;
+                    }
+                    data.set(i, data.get(next));
+                    i = next;
+                }
             }
+        } finally {
+            unmark(permutation);
         }
-        return left;
+    }
+
+    private static void unmark(int[] permutation){
+        for (int i = 0; i < permutation.length; i++)
+            if (permutation[i] < 0)
+                permutation[i] = ~permutation[i];
     }
 
     /**
-     * The quicksort method,
-     * this method launches its
-     * {@code quicksort(List<E> data, int start, int end)}
-     * extended version with the number of the start and end elements for sorting.
+     * Returns the array of a {@link MyArrayList}, or a copy of the elements of any other list.
      * @param data The data store that will be sorted.
-     * @param <E> The type of data to be sorted.
+     * @return An array whose first {@code size()} elements are the elements of the list.
      */
-    private static <E extends Comparable<E>> void quicksort(MyList<E> data){
-        quicksort(data, 0, data.size() - 1);
+    private static Object[] elements(MyList<?> data){
+        if (data instanceof MyArrayList)
+            return ((MyArrayList<?>) data).elementData();
+        Object[] values = new Object[data.size()];
+        int i = 0;
+        for (Object element : data)
+            values[i++] = element;
+        return values;
     }
 
     /**
-     * Runs the {@code partOfSort(List<E> data, int left, int right)}
-     * method of sorting the array from the left element to the right element,
-     * taking from it the element where sorting stopped {@code int rightStart}.
-     * Next, this method launches itself with a range from left to int rightStart
-     * and once again itself from int rightStart to right. If, when starting this method,
-     * start >= end, the method ends.
+     * Writes the sorted elements back, unless they have been sorted in the array of the list.
+     * @param data The data store that has been sorted.
+     * @param values The sorted elements.
+     * @param <E> The type of data that has been sorted.
+     */
+    private static <E> void setElements(MyList<E> data, Object[] values){
+        if (data instanceof MyArrayList)
+            return;
+        for (int i = 0; i < values.length; i++)
+            data.set(i, (E) values[i]);
+    }
+
+    /**
+     *  Starts the sorting process of {@code int} values in ascending order by running the
+     * {@code IntroSort.sort} method, or {@code VectorSort.sort} for the arrays if the vectors are available.
+     *  If an object with data to sort is empty, let it return false.
+     *  The values are compared as primitives, without any comparator.
      * @param data The data store that will be sorted.
-     * @param start The element to sort.
-     * @param end The final element to sort.
+     * @return Was the sorting successful.
+     */
+    public static boolean runSorting(MyIntList data){
+        if (data.isEmpty())
+            return false;
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            measure(listener, data instanceof MyIntArrayList
+                    ? sortable(((MyIntArrayList) data).elementData())
+                    : sortable(data), data.size(), null, 0);
+        else if (data instanceof MyIntArrayList)
+            sortValues(((MyIntArrayList) data).elementData(), data.size());
+        else
+            IntroSort.sort(sortable(data), 0, data.size());
+        return true;
+    }
+
+    /**
+     *  Starts the sorting process of {@code long} values in ascending order by running the
+     * {@code IntroSort.sort} method, or {@code VectorSort.sort} for the arrays if the vectors are available.
+     *  If an object with data to sort is empty, let it return false.
+     *  The values are compared as primitives, without any comparator.
+     * @param data The data store that will be sorted.
+     * @return Was the sorting successful.
+     */
+    public static boolean runSorting(MyLongList data){
+        if (data.isEmpty())
+            return false;
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            measure(listener, data instanceof MyLongArrayList
+                    ? sortable(((MyLongArrayList) data).elementData())
+                    : sortable(data), data.size(), null, 0);
+        else if (data instanceof MyLongArrayList)
+            sortValues(((MyLongArrayList) data).elementData(), data.size());
+        else
+            IntroSort.sort(sortable(data), 0, data.size());
+        return true;
+    }
+
+    /**
+     *  Starts the sorting process of {@code double} values in ascending order by running the
+     * {@code IntroSort.sort} method, or {@code VectorSort.sort} for the arrays if the vectors are available.
+     *  If an object with data to sort is empty, let it return false.
+     *  The values are compared as primitives, in the order of {@link Double#compare(double, double)},
+     *  so {@code -0.0} goes before {@code 0.0} and {@code NaN} goes last.
+     * @param data The data store that will be sorted.
+     * @return Was the sorting successful.
+     */
+    public static boolean runSorting(MyDoubleList data){
+        if (data.isEmpty())
+            return false;
+        MetricsListener listener = Metrics.listener;
+        if (listener != null)
+            measure(listener, data instanceof MyDoubleArrayList
+                    ? sortable(((MyDoubleArrayList) data).elementData())
+                    : sortable(data), data.size(), null, 0);
+        else if (data instanceof MyDoubleArrayList)
+            sortValues(((MyDoubleArrayList) data).elementData(), data.size());
+        else
+            IntroSort.sort(sortable(data), 0, data.size());
+        return true;
+    }
+
+    /**
+     * Looks the {@code jdk.incubator.vector} module up before {@code VectorSort} is touched,
+     * as the class cannot be initialized without it. The class is loaded by name, since it is
+     * compiled apart from the rest of the library and may be missing from the class path.
+     * @return The vector sort, or null if the arrays of primitives should be sorted by {@link IntroSort}.
+     */
+    private static PrimitiveSorter vectorSorter(){
+        if (!Boolean.parseBoolean(System.getProperty("grovox.vectorSort", "true")))
+            return null;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            PrimitiveSorter sorter = (PrimitiveSorter) Class.forName("grovox.VectorSort$Sorter")
+                    .getDeclaredConstructor().newInstance();
+            return sorter.isSupported() ? sorter : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static void sortValues(int[] values, int size){
+        if (VECTOR_SORTER != null)
+            VECTOR_SORTER.sort(values, 0, size);
+        else
+            IntroSort.sort(values, 0, size);
+    }
+
+    private static void sortValues(long[] values, int size){
+        if (VECTOR_SORTER != null)
+            VECTOR_SORTER.sort(values, 0, size);
+        else
+            IntroSort.sort(values, 0, size);
+    }
+
+    private static void sortValues(double[] values, int size){
+        if (VECTOR_SORTER != null)
+            VECTOR_SORTER.sort(values, 0, size);
+        else
+            IntroSort.sort(values, 0, size);
+    }
+
+    /**
+     * Sorts the data through a {@link SortProbe} that counts the work
+     * and passes the costs to the listener.
+     * @param listener The listener that receives the costs.
+     * @param data The data that will be sorted.
+     * @param size The number of elements.
+     * @param pool The pool for the parallel sorting, or null to sort in the calling thread.
+     * @param threshold The size of the part below which no new tasks are forked.
+     */
+    private static void measure(MetricsListener listener, IntroSort.Sortable data, int size,
+                                ForkJoinPool pool, int threshold){
+        int depthLimit = IntroSort.depthLimit(size);
+        SortProbe probe = new SortProbe(data, depthLimit);
+        long start = System.nanoTime();
+        if (pool == null)
+            IntroSort.sort(probe, 0, size, depthLimit);
+        else
+            pool.invoke(new SortTask<>(null, probe, null, threshold, 0, size, depthLimit));
+        long nanos = System.nanoTime() - start;
+        listener.onSort(new SortStats(size, probe.comparisons.sum(), probe.swaps.sum(),
+                depthLimit - probe.minDepth.get(), nanos, pool != null));
+    }
+
+    /**
+     * Wraps a permutation of the indexes of the elements into an {@link IntroSort.Sortable}
+     * that compares the elements the indexes point to and moves only the indexes.
+     * The equal elements are ordered by their indexes.
+     * @param permutation The indexes of the elements.
+     * @param values The elements, they are not moved.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The permutation as a {@code Sortable}.
+     * @param <E> The type of data.
+     */
+    private static <E> IntroSort.Sortable sortable(int[] permutation, Object[] values, Comparator<? super E> comparator){
+        return new IntroSort.Sortable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public int compare(int i, int j) {
+                int result = comparator.compare((E) values[permutation[i]], (E) values[permutation[j]]);
+                return result != 0 ? result : Integer.compare(permutation[i], permutation[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                int temp = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = temp;
+            }
+        };
+    }
+
+    /**
+     * Wraps the derived keys and the elements into an {@link IntroSort.Sortable}
+     * that compares the keys and moves the elements together with them.
+     * @param keys The keys, the element with index {@code i} has the key {@code keys[i]}.
+     * @param values The elements.
+     * @return The keys and the elements as a {@code Sortable}.
+     * @param <K> The type of the keys.
+     */
+    private static <K extends Comparable<? super K>> IntroSort.Sortable sortable(Object[] keys, Object[] values){
+        return new IntroSort.Sortable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public int compare(int i, int j) {
+                return ((K) keys[i]).compareTo((K) keys[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                Object temp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = temp;
+                temp = values[i];
+                values[i] = values[j];
+                values[j] = temp;
+            }
+        };
+    }
+
+    /**
+     * Wraps the array of a {@link MyArrayList} into an {@link IntroSort.Sortable},
+     * it is used instead of the array itself when the sorting is measured.
+     * @param array The array of the list.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The array as a {@code Sortable}.
      * @param <E> The type of data to be sorted.
      */
-    private static <E extends Comparable<E>> void quicksort(MyList<E> data, int start, int end){
-        if (start >= end) return;
-        int rightStart = partOfSort(data, start, end);
-        quicksort(data, start, rightStart - 1);
-        quicksort(data, rightStart, end);
+    private static <E> IntroSort.Sortable sortable(Object[] array, Comparator<? super E> comparator){
+        return new IntroSort.Sortable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public int compare(int i, int j) {
+                return comparator.compare((E) array[i], (E) array[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                Object temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        };
+    }
+
+    private static IntroSort.Sortable sortable(int[] array){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Integer.compare(array[i], array[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                int temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        };
+    }
+
+    private static IntroSort.Sortable sortable(long[] array){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Long.compare(array[i], array[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                long temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        };
+    }
+
+    private static IntroSort.Sortable sortable(double[] array){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Double.compare(array[i], array[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                double temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        };
     }
 
     /**
-     * Takes the middle one between left and right as a reference element
-     * and assigns it as a reference element.
-     * Next, the cycle begins until left <= right, in which an element
-     * is searched from left to right, when compared through Comparable,
-     * more than the reference element is added to left + 1 and from right to left,
-     * an element less than the reference element is added to right plus one and
-     * if left <= right then these elements change.
+     * Wraps the data into an {@link IntroSort.Sortable} that compares
+     * and swaps the elements through {@code get} and {@code set}.
+     * The elements of an {@link OffHeapList} or a {@link MappedList} are swapped as bytes, without decoding.
      * @param data The data store that will be sorted.
-     * @param left The left edge of the sorted subarray.
-     * @param right The right edge of the sorted subarray.
-     * @return The final value of left.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The data as a {@code Sortable}.
      * @param <E> The type of data to be sorted.
      */
-    private static <E extends Comparable<E>> int partOfSort(MyList<E> data, int left, int right){
-        E pivot = data.get((left + right) / 2);
+    private static <E> IntroSort.Sortable sortable(MyList<E> data, Comparator<? super E> comparator){
+        if (data instanceof BufferList) {
+            BufferList<E> list = (BufferList<E>) data;
+            return new IntroSort.Sortable() {
+                @Override
+                public int compare(int i, int j) {
+                    return comparator.compare(list.get(i), list.get(j));
+                }
+
+                @Override
+                public void swap(int i, int j) {
+                    list.swap(i, j);
+                }
+            };
+        }
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return comparator.compare(data.get(i), data.get(j));
+            }
 
-        while (left <= right) {
-            while (data.get(left).compareTo(pivot) < 0) left++;
-            while (data.get(right).compareTo(pivot) > 0) right--;
+            @Override
+            public void swap(int i, int j) {
+                data.set(i, data.set(j, data.get(i)));
+            }
+        };
+    }
+
+    private static IntroSort.Sortable sortable(MyIntList data){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Integer.compare(data.get(i), data.get(j));
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                data.set(i, data.set(j, data.get(i)));
+            }
+        };
+    }
 
-            if(left <= right){
-                E temp = data.get( left);
-                data.set(left,  data.get(right));
-                data.set(right, temp);
-                left++;
-                right--;
+    private static IntroSort.Sortable sortable(MyLongList data){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Long.compare(data.get(i), data.get(j));
             }
+
+            @Override
+            public void swap(int i, int j) {
+                data.set(i, data.set(j, data.get(i)));
+            }
+        };
+    }
+
+    private static IntroSort.Sortable sortable(MyDoubleList data){
+        return new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Double.compare(data.get(i), data.get(j));
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                data.set(i, data.set(j, data.get(i)));
+            }
+        };
+    }
+
+    /**
+     * A task that sorts one part of the data. It splits the part
+     * with {@code IntroSort.partOfSort} and forks a task for each half,
+     * until the half is smaller than the threshold or the depth limit is reached.
+     * @param <E> The type of data to be sorted.
+     */
+    private static final class SortTask<E> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        /**
+         * The array of the data if it is an array list, otherwise null.
+         */
+        private final Object[] array;
+        /**
+         * The data if it is not an array list, otherwise null.
+         */
+        private final IntroSort.Sortable sortable;
+        private final Comparator<E> comparator;
+        private final int threshold;
+        private final int from;
+        private final int to;
+        private final int depth;
+
+        SortTask(Object[] array, IntroSort.Sortable sortable, Comparator<E> comparator,
+                 int threshold, int from, int to, int depth) {
+            this.array = array;
+            this.sortable = sortable;
+            this.comparator = comparator;
+            this.threshold = threshold;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold || depth == 0) {
+                if (array != null)
+                    IntroSort.sort(array, from, to, comparator, depth);
+                else
+                    IntroSort.sort(sortable, from, to, depth);
+                return;
+            }
+            if (sortable != null)
+                sortable.onSplit(depth - 1);
+            int pivot = array != null
+                    ? IntroSort.partOfSort(array, from, to, comparator)
+                    : IntroSort.partOfSort(sortable, from, to);
+            invokeAll(new SortTask<>(array, sortable, comparator, threshold, from, pivot, depth - 1),
+                    new SortTask<>(array, sortable, comparator, threshold, pivot + 1, to, depth - 1));
+        }
+    }
+
+    /**
+     * Counts the comparisons, swaps and splits of the data it wraps.
+     * The counters may be updated by several sorting tasks at once.
+     */
+    private static final class SortProbe implements IntroSort.Sortable {
+        private final IntroSort.Sortable data;
+        private final LongAdder comparisons = new LongAdder();
+        private final LongAdder swaps = new LongAdder();
+        /**
+         * The smallest number of splits that was left to a part,
+         * the depth limit minus it is the deepest level that was reached.
+         */
+        private final AtomicInteger minDepth;
+
+        SortProbe(IntroSort.Sortable data, int depthLimit) {
+            this.data = data;
+            this.minDepth = new AtomicInteger(depthLimit);
+        }
+
+        @Override
+        public int compare(int i, int j) {
+            comparisons.increment();
+            return data.compare(i, j);
+        }
+
+        @Override
+        public void swap(int i, int j) {
+            swaps.increment();
+            data.swap(i, j);
+        }
+
+        @Override
+        public void onSplit(int depth) {
+            if (depth < minDepth.get())
+                minDepth.accumulateAndGet(depth, Math::min);
         }
-        return left;
     }
 }
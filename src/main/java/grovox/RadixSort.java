@@ -0,0 +1,175 @@
+package grovox;
+
+/**
+ * The sorting engine behind {@code QuickSort.runSortingByIntKey} and {@code runSortingByLongKey}.
+ * It sorts the elements by their {@code int} or {@code long} keys with an LSD radix sort: the keys are
+ * distributed by one byte at a time, from the lowest to the highest, each pass is
+ * stable, so after the last one the keys are in order. The counts of all the bytes
+ * are taken in one pass over the keys, and the bytes that are the same in all the keys
+ * are skipped, so small keys take fewer passes. The sorting takes O(n) time and
+ * O(n) extra memory and keeps the order of the elements with equal keys.
+ * Small inputs are sorted by a binary insertion sort, which is also stable.
+ *@author Max Artemov
+ */
+final class RadixSort {
+    /**
+     * Inputs smaller than this are sorted by insertion.
+     */
+    static final int RADIX_SORT_THRESHOLD = 64;
+    /**
+     * The number of bits of a key that are distributed in one pass.
+     */
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGITS = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = DIGITS - 1;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Sorts the first {@code length} keys in ascending order and moves the values with them.
+     * @param keys The keys, the value with index {@code i} has the key {@code keys[i]}.
+     * @param values The values that are sorted by the keys.
+     * @param length The number of keys and values to sort.
+     */
+    static void sort(int[] keys, Object[] values, int length){
+        if (length < RADIX_SORT_THRESHOLD) {
+            insertionSort(keys, values, length);
+            return;
+        }
+        int passes = Integer.BYTES;
+        int[][] counts = new int[passes][DIGITS];
+        for (int i = 0; i < length; i++) {
+            int key = keys[i] ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++)
+                counts[pass][(key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+        }
+
+        int[] sourceKeys = keys;
+        Object[] sourceValues = values;
+        int[] targetKeys = new int[length];
+        Object[] targetValues = new Object[length];
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] count = counts[pass];
+            if (count[((sourceKeys[0] ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK] == length)
+                continue;
+            toOffsets(count);
+            for (int i = 0; i < length; i++) {
+                int position = count[((sourceKeys[i] ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK]++;
+                targetKeys[position] = sourceKeys[i];
+                targetValues[position] = sourceValues[i];
+            }
+            int[] keysTemp = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = keysTemp;
+            Object[] valuesTemp = sourceValues;
+            sourceValues = targetValues;
+            targetValues = valuesTemp;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            System.arraycopy(sourceValues, 0, values, 0, length);
+        }
+    }
+
+    /**
+     * Sorts the first {@code length} keys in ascending order and moves the values with them.
+     * @param keys The keys, the value with index {@code i} has the key {@code keys[i]}.
+     * @param values The values that are sorted by the keys.
+     * @param length The number of keys and values to sort.
+     */
+    static void sort(long[] keys, Object[] values, int length){
+        if (length < RADIX_SORT_THRESHOLD) {
+            insertionSort(keys, values, length);
+            return;
+        }
+        int passes = Long.BYTES;
+        int[][] counts = new int[passes][DIGITS];
+        for (int i = 0; i < length; i++) {
+            long key = keys[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++)
+                counts[pass][(int) (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+        }
+
+        long[] sourceKeys = keys;
+        Object[] sourceValues = values;
+        long[] targetKeys = new long[length];
+        Object[] targetValues = new Object[length];
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] count = counts[pass];
+            if (count[(int) ((sourceKeys[0] ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK] == length)
+                continue;
+            toOffsets(count);
+            for (int i = 0; i < length; i++) {
+                int position = count[(int) ((sourceKeys[i] ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK]++;
+                targetKeys[position] = sourceKeys[i];
+                targetValues[position] = sourceValues[i];
+            }
+            long[] keysTemp = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = keysTemp;
+            Object[] valuesTemp = sourceValues;
+            sourceValues = targetValues;
+            targetValues = valuesTemp;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            System.arraycopy(sourceValues, 0, values, 0, length);
+        }
+    }
+
+    /**
+     * Turns the counts of the digits into the positions of the first key with each digit.
+     * @param count The number of keys with each digit.
+     */
+    private static void toOffsets(int[] count){
+        int offset = 0;
+        for (int digit = 0; digit < DIGITS; digit++) {
+            int number = count[digit];
+            count[digit] = offset;
+            offset += number;
+        }
+    }
+
+    private static void insertionSort(int[] keys, Object[] values, int length){
+        for (int i = 1; i < length; i++) {
+            int key = keys[i];
+            Object value = values[i];
+            int low = 0;
+            int high = i;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (key < keys[middle])
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+            System.arraycopy(keys, low, keys, low + 1, i - low);
+            System.arraycopy(values, low, values, low + 1, i - low);
+            keys[low] = key;
+            values[low] = value;
+        }
+    }
+
+    private static void insertionSort(long[] keys, Object[] values, int length){
+        for (int i = 1; i < length; i++) {
+            long key = keys[i];
+            Object value = values[i];
+            int low = 0;
+            int high = i;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (key < keys[middle])
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+            System.arraycopy(keys, low, keys, low + 1, i - low);
+            System.arraycopy(values, low, values, low + 1, i - low);
+            keys[low] = key;
+            values[low] = value;
+        }
+    }
+}
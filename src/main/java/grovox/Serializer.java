@@ -0,0 +1,124 @@
+package grovox;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *  Describes how elements are written to a stream of bytes and read back,
+ *  it is used by {@link ExternalSort} to spill sorted runs to temporary files.
+ *  Unlike a {@link Codec}, the elements may take different numbers of bytes.
+ * @param <E> The type of data that is serialized.
+ * @author Max Artemov
+ */
+public interface Serializer<E> {
+    /**
+     * Writes {@link Integer} values as four bytes, null is not supported.
+     */
+    Serializer<Integer> INT = new Serializer<>() {
+        @Override
+        public void write(DataOutput out, Integer element) throws IOException {
+            out.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    /**
+     * Writes {@link Long} values as eight bytes, null is not supported.
+     */
+    Serializer<Long> LONG = new Serializer<>() {
+        @Override
+        public void write(DataOutput out, Long element) throws IOException {
+            out.writeLong(element);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    /**
+     * Writes {@link Double} values as eight bytes, null is not supported.
+     */
+    Serializer<Double> DOUBLE = new Serializer<>() {
+        @Override
+        public void write(DataOutput out, Double element) throws IOException {
+            out.writeDouble(element);
+        }
+
+        @Override
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    /**
+     * Writes {@link String} values as their length in bytes followed by the UTF-8 bytes,
+     * there is no limit on the length, null is not supported.
+     */
+    Serializer<String> STRING = new Serializer<>() {
+        @Override
+        public void write(DataOutput out, String element) throws IOException {
+            byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Writes the element to the stream.
+     * @param out The stream to write to.
+     * @param element The element to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    void write(DataOutput out, E element) throws IOException;
+
+    /**
+     * Reads an element from the stream.
+     * @param in The stream to read from.
+     * @return The element that was read.
+     * @throws IOException If the stream cannot be read.
+     */
+    E read(DataInput in) throws IOException;
+
+    /**
+     * Returns a serializer that writes the bytes of a fixed-width codec.
+     * The serializer keeps its own buffers, so it must not be used by two threads at once.
+     * @param codec The codec that encodes the elements.
+     * @return The serializer.
+     * @param <E> The type of data that is serialized.
+     */
+    static <E> Serializer<E> of(Codec<E> codec){
+        int width = codec.width();
+        return new Serializer<>() {
+            private final ByteBuffer output = ByteBuffer.allocate(width);
+            private final ByteBuffer input = ByteBuffer.allocate(width);
+
+            @Override
+            public void write(DataOutput out, E element) throws IOException {
+                codec.write(output, 0, element);
+                out.write(output.array());
+            }
+
+            @Override
+            public E read(DataInput in) throws IOException {
+                in.readFully(input.array());
+                return codec.read(input, 0);
+            }
+        };
+    }
+}
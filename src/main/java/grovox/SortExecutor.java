@@ -0,0 +1,317 @@
+package grovox;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *  Sorts many lists asynchronously. Every submitted list is a job whose future completes
+ *  with the latency of the job once the list is sorted. Small jobs are sorted sequentially,
+ *  each on its own virtual thread if the runtime has them (Java 21 and later), otherwise
+ *  on a pool of as many platform threads as there are processors. Large jobs are sorted
+ *  by {@link QuickSort#runParallelSorting(MyList, Comparator, ForkJoinPool, int)}
+ *  in a {@link ForkJoinPool} of bounded parallelism, so they cannot take all the processors.
+ *  <p>
+ *  The number of elements in the jobs that are submitted but not finished is limited:
+ *  {@code submit} waits and {@code trySubmit} fails while there is no room for the next job,
+ *  so a fast producer cannot queue more work than the memory can hold.
+ *  A job that is bigger than the limit is let in alone.
+ *  <p>
+ *  Cancelling the future of a job that has not started yet skips it and gives its room
+ *  back at once. A job that is already sorting notices the cancellation within a few
+ *  thousand comparisons and stops, its list is then left with the same elements
+ *  in a partly sorted order.
+ *  The list must not be changed by anyone else until the future is done.
+ * @author Max Artemov
+ */
+public final class SortExecutor implements AutoCloseable {
+    /**
+     * The default size from which jobs are sorted in parallel.
+     */
+    public static final int DEFAULT_LARGE_JOB_THRESHOLD = 1 << 16;
+    /**
+     * The default limit of the elements in the jobs that are submitted but not finished.
+     */
+    public static final int DEFAULT_MAX_QUEUED_ELEMENTS = 1 << 24;
+    /**
+     * A running job checks whether it has been cancelled once in this many comparisons.
+     */
+    private static final int CANCELLATION_CHECK_MASK = (1 << 12) - 1;
+
+    private final int largeJobThreshold;
+    private final int maxQueuedElements;
+    private final ExecutorService smallJobs;
+    private final ForkJoinPool largeJobs;
+    private final boolean virtualThreads;
+    /**
+     * One permit for every element that may still be queued.
+     */
+    private final Semaphore room;
+    /**
+     * The jobs that are submitted but not finished, their futures are cancelled
+     * when the executor cannot wait for them.
+     */
+    private final Set<Job<?>> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Creates an executor with the default threshold and limit,
+     * the large jobs are sorted by as many threads as there are processors.
+     */
+    public SortExecutor() {
+        this(DEFAULT_LARGE_JOB_THRESHOLD, DEFAULT_MAX_QUEUED_ELEMENTS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an executor.
+     * @param largeJobThreshold The size from which jobs are sorted in parallel.
+     * @param maxQueuedElements The limit of the elements in the jobs that are submitted but not finished.
+     * @param parallelism The number of threads that sort the large jobs.
+     * @throws IllegalArgumentException If any of the values is less than one.
+     */
+    public SortExecutor(int largeJobThreshold, int maxQueuedElements, int parallelism) {
+        if (largeJobThreshold < 1)
+            throw new IllegalArgumentException("Large job threshold must be positive: " + largeJobThreshold);
+        if (maxQueuedElements < 1)
+            throw new IllegalArgumentException("Max queued elements must be positive: " + maxQueuedElements);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        this.largeJobThreshold = largeJobThreshold;
+        this.maxQueuedElements = maxQueuedElements;
+        this.room = new Semaphore(maxQueuedElements);
+        this.largeJobs = new ForkJoinPool(parallelism);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.smallJobs = virtual != null ? virtual
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory());
+    }
+
+    /**
+     * Returns the virtual-thread-per-task executor of Java 21, which cannot be referenced
+     * directly while this library is built for Java 17.
+     * @return The executor, or null if the runtime has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor(){
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Whether the small jobs are run on virtual threads.
+     */
+    public boolean usesVirtualThreads(){
+        return virtualThreads;
+    }
+
+    /**
+     * Submits a list to be sorted, waiting while the limit of the queued elements is reached.
+     * @param data The data store that will be sorted.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The future that completes with the latency of the job when the list is sorted.
+     * @param <E> The type of data to be sorted.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     * @throws RejectedExecutionException If the executor is closed.
+     */
+    public <E> CompletableFuture<SortJobStats> submit(MyList<E> data, Comparator<E> comparator) throws InterruptedException {
+        int permits = permits(data);
+        room.acquire(permits);
+        return start(data, comparator, permits);
+    }
+
+    /**
+     * Submits a list to be sorted if the limit of the queued elements allows it.
+     * @param data The data store that will be sorted.
+     * @param comparator A comparator that will compare items when sorting.
+     * @return The future that completes with the latency of the job when the list is sorted.
+     * @param <E> The type of data to be sorted.
+     * @throws RejectedExecutionException If there is no room for the job or the executor is closed.
+     */
+    public <E> CompletableFuture<SortJobStats> trySubmit(MyList<E> data, Comparator<E> comparator){
+        int permits = permits(data);
+        if (!room.tryAcquire(permits))
+            throw new RejectedExecutionException("No room for " + data.size() + " more elements");
+        return start(data, comparator, permits);
+    }
+
+    /**
+     * Submits a list that is able to compare itself, waiting while the limit of the queued elements is reached.
+     * @param data The data store that will be sorted.
+     * @return The future that completes with the latency of the job when the list is sorted.
+     * @param <E> The type of data to be sorted.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     * @throws RejectedExecutionException If the executor is closed.
+     */
+    public <E extends Comparable<E>> CompletableFuture<SortJobStats> submit(MyList<E> data) throws InterruptedException {
+        return submit(data, Comparator.naturalOrder());
+    }
+
+    private int permits(MyList<?> data){
+        if (closed)
+            throw new RejectedExecutionException("SortExecutor is closed");
+        return Math.min(data.size(), maxQueuedElements);
+    }
+
+    private <E> CompletableFuture<SortJobStats> start(MyList<E> data, Comparator<E> comparator, int permits){
+        Job<E> job = new Job<>(data, comparator, permits);
+        pending.add(job);
+        try {
+            if (closed)
+                throw new RejectedExecutionException("SortExecutor is closed");
+            if (job.large)
+                largeJobs.execute(job);
+            else
+                smallJobs.execute(job);
+        } catch (RuntimeException e) {
+            pending.remove(job);
+            room.release(permits);
+            throw e;
+        }
+        job.future.whenComplete((stats, failure) -> {
+            if (job.future.isCancelled())
+                job.skip();
+        });
+        return job.future;
+    }
+
+    /**
+     * Stops accepting jobs and waits until the submitted ones are finished.
+     * If the thread is interrupted while it waits, the futures of all the unfinished jobs
+     * are cancelled: the queued jobs are dropped and give their room back,
+     * the running ones stop at their next check.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        smallJobs.shutdown();
+        largeJobs.shutdown();
+        try {
+            smallJobs.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            largeJobs.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            smallJobs.shutdownNow();
+            largeJobs.shutdownNow();
+            for (Job<?> job : pending)
+                job.future.cancel(false);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One submitted list. The comparator is wrapped so that it checks
+     * from time to time whether the future has been cancelled.
+     * @param <E> The type of data to be sorted.
+     */
+    private final class Job<E> implements Runnable {
+        private final MyList<E> data;
+        private final Comparator<E> comparator;
+        private final int permits;
+        private final int size;
+        private final boolean large;
+        private final long submitted = System.nanoTime();
+        private final CompletableFuture<SortJobStats> future = new CompletableFuture<>();
+        /**
+         * Set by whichever comes first, the run of the job or its cancellation
+         * before the run, so that the room is given back once.
+         */
+        private final AtomicBoolean started = new AtomicBoolean();
+        /**
+         * Counts the comparisons between the checks, the parallel tasks may lose some of the increments.
+         */
+        private int comparisons;
+
+        Job(MyList<E> data, Comparator<E> comparator, int permits) {
+            this.data = data;
+            this.comparator = comparator;
+            this.permits = permits;
+            this.size = data.size();
+            this.large = size >= largeJobThreshold;
+        }
+
+        /**
+         * Sorts the list and completes the future, unless the job has been cancelled before.
+         * The room of the job is released first, so a caller that waits for the future
+         * can submit the next job at once.
+         */
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true))
+                return;
+            SortJobStats stats = null;
+            Throwable failure = null;
+            try {
+                stats = sort();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                pending.remove(this);
+                room.release(permits);
+            }
+            if (failure instanceof CancellationException)
+                future.cancel(false);
+            else if (failure != null)
+                future.completeExceptionally(failure);
+            else if (stats != null)
+                future.complete(stats);
+        }
+
+        /**
+         * Gives the room of a cancelled job back if the job has not started,
+         * a started job gives it back when it stops.
+         */
+        void skip(){
+            if (started.compareAndSet(false, true)) {
+                pending.remove(this);
+                room.release(permits);
+            }
+        }
+
+        private SortJobStats sort(){
+            long started = System.nanoTime();
+            Comparator<E> checked = (first, second) -> {
+                if ((++comparisons & CANCELLATION_CHECK_MASK) == 0 && future.isCancelled())
+                    throw new CancellationException();
+                return comparator.compare(first, second);
+            };
+            if (large)
+                QuickSort.runParallelSorting(data, checked, largeJobs, QuickSort.DEFAULT_PARALLEL_THRESHOLD);
+            else
+                QuickSort.runSorting(data, checked);
+            SortJobStats stats = new SortJobStats(size, large, started - submitted, System.nanoTime() - started);
+            MetricsListener listener = Metrics.listener;
+            if (listener != null)
+                listener.onSortJob(stats);
+            return stats;
+        }
+    }
+
+    /**
+     * Creates the daemon threads of the small jobs when there are no virtual threads,
+     * so that an executor that is not closed does not keep the application running.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger NUMBER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "grovox-sort-" + NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package grovox;
+
+/**
+ *  The latency of one job of a {@link SortExecutor}, the result of its future
+ *  and the argument of {@link MetricsListener#onSortJob(SortJobStats)}.
+ * @param size The number of elements that have been sorted.
+ * @param large Whether the job has been sorted in parallel as a large one.
+ * @param queuedNanos The time in nanoseconds from the submission until the sorting started.
+ * @param runNanos The wall time of the sorting in nanoseconds.
+ * @author Max Artemov
+ */
+public record SortJobStats(int size, boolean large, long queuedNanos, long runNanos) {
+    /**
+     * @return The time in nanoseconds from the submission until the sorting finished.
+     */
+    public long latencyNanos(){
+        return queuedNanos + runNanos;
+    }
+}
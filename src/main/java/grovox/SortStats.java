@@ -0,0 +1,15 @@
+package grovox;
+
+/**
+ *  The costs of one sorting, passed to {@link MetricsListener#onSort(SortStats)}.
+ * @param size The number of elements that have been sorted.
+ * @param comparisons The number of comparisons of two elements.
+ * @param swaps The number of swaps of two elements.
+ * @param maxDepth The largest number of nested splits of a part into two parts,
+ *                 it is at most {@code 2 * log2(size)}, after that the part is sorted by heapsort.
+ * @param nanos The wall time of the sorting in nanoseconds.
+ * @param parallel Whether the parts have been sorted by several threads.
+ * @author Max Artemov
+ */
+public record SortStats(int size, long comparisons, long swaps, int maxDepth, long nanos, boolean parallel) {
+}
@@ -0,0 +1,315 @@
+package grovox;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ *  This is an implementation of the {@link MyList} interface that keeps
+ *  its elements in the order of a comparator, so it never has to be sorted.
+ *  The elements are stored in a {@link MyArrayList}. A single element is put
+ *  at the place found by a binary search, a batch of elements is sorted on its own
+ *  and merged with the stored elements in one linear pass, from the end of the array,
+ *  so the stored elements are never sorted again. The equal elements stay in the order
+ *  in which they have been added. Elements are searched by a binary search in O(log n).
+ *  Inserting and replacing elements by index is not supported, as it could break the order,
+ *  so the list cannot be sorted by {@link QuickSort} either.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class SortedArrayList<E> implements MyList<E> {
+    /**
+     * The stored elements in sorted order.
+     */
+    private final MyArrayList<E> data;
+    private final Comparator<? super E> comparator;
+
+    /**
+     * The constructor that creates an empty list.
+     * @param comparator The comparator that defines the order of the elements.
+     */
+    public SortedArrayList(Comparator<? super E> comparator) {
+        this.data = new MyArrayList<>();
+        this.comparator = comparator;
+    }
+
+    /**
+     * The constructor that creates an empty list for the given number of elements.
+     * @param comparator The comparator that defines the order of the elements.
+     * @param initialCapacity The number of elements that can be added without growing.
+     * @throws IllegalArgumentException if the number is negative.
+     */
+    public SortedArrayList(Comparator<? super E> comparator, int initialCapacity) {
+        this.data = new MyArrayList<>(initialCapacity);
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return The comparator that defines the order of the elements.
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Adds an element after all the elements that are not greater than it.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(E element) {
+        return data.add(upperBound(element), element);
+    }
+
+    /**
+     * Not supported, the list decides the place of an element itself.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        throw new UnsupportedOperationException("SortedArrayList decides the place of an element itself");
+    }
+
+    /**
+     * Adds a batch of elements. The batch is copied and sorted, then the stored elements
+     * and the batch are merged from the end of the array, so every stored element
+     * is moved at most once and the array grows at most once.
+     * @param elements An array of objects to add, it is not changed.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        if (elements.length == 0)
+            return false;
+        merge(elements.clone());
+        return true;
+    }
+
+    /**
+     * Not supported, the list decides the place of an element itself.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public boolean addAll(int index, E[] elements) {
+        throw new UnsupportedOperationException("SortedArrayList decides the place of an element itself");
+    }
+
+    /**
+     * Adds all the elements of another list as one batch,
+     * like {@code addAll(E[] elements)}.
+     * @param elements The list whose elements should be added, it may be this list itself.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(MyList<? extends E> elements) {
+        int length = elements.size();
+        if (length == 0)
+            return false;
+        Object[] batch = new Object[length];
+        for (int i = 0; i < length; i++)
+            batch[i] = elements.get(i);
+        merge(batch);
+        return true;
+    }
+
+    /**
+     * Sorts the batch and merges it into the stored elements.
+     * The batch is appended to grow the array once, then the greater of the last
+     * stored element and the last batch element goes to the end, and so on.
+     * The stored elements go first among the equal ones.
+     * @param batch The elements to add, the array is sorted in place.
+     */
+    private void merge(Object[] batch) {
+        MergeSort.sort(batch, 0, batch.length, comparator);
+        int stored = data.size();
+        data.addAll((E[]) batch);
+        Object[] array = data.elementData();
+        int i = stored - 1;
+        int j = batch.length - 1;
+        int dest = stored + batch.length - 1;
+        while (j >= 0 && i >= 0) {
+            if (comparator.compare((E) array[i], (E) batch[j]) > 0)
+                array[dest--] = array[i--];
+            else
+                array[dest--] = batch[j--];
+        }
+        if (j >= 0)
+            System.arraycopy(batch, 0, array, 0, j + 1);
+    }
+
+    /**
+     * Removes the specified element from the array.
+     * @param index The place where the element should be deleted.
+     * @return Deleted Item.
+     */
+    @Override
+    public E remove(int index) {
+        return data.remove(index);
+    }
+
+    /**
+     * Removes the first element that is equal to the given one by the comparator.
+     * @param element The element to remove.
+     * @return whether an element has been removed.
+     */
+    public boolean removeElement(E element) {
+        int index = indexOf(element);
+        if (index < 0)
+            return false;
+        data.remove(index);
+        return true;
+    }
+
+    /**
+     * Removes the elements from {@code from}, inclusive, to {@code to}, exclusive.
+     * @param from The index of the first element to remove.
+     * @param to The index after the last element to remove.
+     */
+    @Override
+    public void removeRange(int from, int to) {
+        data.removeRange(from, to);
+    }
+
+    /**
+     * Removes all the elements that satisfy the filter, the order of the others is kept.
+     * @param filter Returns {@code true} for the elements to remove.
+     * @return whether any element has been removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        return data.removeIf(filter);
+    }
+
+    /**
+     * Removes all the elements from our array.
+     */
+    @Override
+    public void clear() {
+        data.clear();
+    }
+
+    /**
+     * Returns the specified element.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    public E get(int index) {
+        return data.get(index);
+    }
+
+    /**
+     * Not supported, the new element could break the order.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public E set(int index, E element) {
+        throw new UnsupportedOperationException("SortedArrayList decides the place of an element itself");
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * @return Indicates whether the array is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * @return An iterator over the elements in sorted order.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return data.iterator();
+    }
+
+    /**
+     * @return A spliterator over the elements in sorted order.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return data.spliterator();
+    }
+
+    /**
+     * Returns the index of the first element that is equal to the given one by the comparator.
+     * @param element The element to search for.
+     * @return The index of the element, or -1 if there is no such element.
+     */
+    public int indexOf(E element) {
+        int index = lowerBound(element);
+        return index < data.size() && comparator.compare(data.get(index), element) == 0 ? index : -1;
+    }
+
+    /**
+     * @param element The element to search for.
+     * @return Whether there is an element that is equal to the given one by the comparator.
+     */
+    public boolean contains(E element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * Returns the index of the first element that is not less than the given one,
+     * that is the number of the elements that are less than it.
+     * @param element The element to compare with.
+     * @return The index, {@code size()} if all the elements are less.
+     */
+    public int lowerBound(E element) {
+        Object[] array = data.elementData();
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare((E) array[middle], element) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first element that is greater than the given one,
+     * that is the number of the elements that are not greater than it.
+     * @param element The element to compare with.
+     * @return The index, {@code size()} if no element is greater.
+     */
+    public int upperBound(E element) {
+        Object[] array = data.elementData();
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare((E) array[middle], element) <= 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the elements from {@code from}, inclusive, to {@code to}, exclusive.
+     * The bounds are found by two binary searches, then the range is copied as one block.
+     * @param from The smallest element of the range.
+     * @param to The element after the range, it is not included.
+     * @return A new list with the elements of the range in order, empty if {@code from} is not less than {@code to}.
+     */
+    public MyArrayList<E> range(E from, E to) {
+        int start = lowerBound(from);
+        int end = Math.max(start, lowerBound(to));
+        Object[] elements = new Object[end - start];
+        System.arraycopy(data.elementData(), start, elements, 0, elements.length);
+        return new MyArrayList<>(elements, elements.length);
+    }
+}
@@ -0,0 +1,332 @@
+package grovox;
+
+import java.util.Arrays;
+
+/**
+ *  This is an implementation of the {@link MyList} interface as a tiered vector.
+ *  The elements are stored in blocks of the same length, a power of two.
+ *  Every block is a ring, it has its own start, so an element can be put
+ *  at its front or taken from it without moving the others. All blocks except
+ *  the last one are full. To insert an element by index, the elements of one
+ *  block are moved and every following block passes its last element to the front
+ *  of the next one. Removal does the same in the opposite direction.
+ *  So both take O(B + n / B) steps for blocks of length B instead of O(n),
+ *  and {@code get} and {@code set} take a constant time, as in {@link MyArrayList}.
+ *  The length of a block doubles when there are more than twice as many blocks
+ *  as elements in a block, so it stays about the square root of the size.
+ * @param <E> The type of data that will be stored here.
+ * @author Max Artemov
+ */
+public class TieredArrayList<E> implements MyList<E> {
+    /**
+     * The binary logarithm of the length of a block in a new list.
+     */
+    private static final int MIN_SHIFT = 6;
+    /**
+     * Stores the maximum number of elements.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    /**
+     * The binary logarithm of the length of a block.
+     */
+    private int shift;
+    /**
+     * {@code blockLength - 1}, turns a position in a block into a slot of its ring.
+     */
+    private int mask;
+    /**
+     * The blocks, only the first {@code blockCount} of them are in use.
+     */
+    private Object[][] blocks;
+    /**
+     * The slot of the first element of each block.
+     */
+    private int[] heads;
+    /**
+     * The number of blocks in use.
+     */
+    private int blockCount;
+    /**
+     * A value that indicates the number of elements.
+     */
+    private int size;
+
+    /**
+     * The constructor that creates an empty list.
+     */
+    public TieredArrayList() {
+        reset(MIN_SHIFT);
+    }
+
+    /**
+     * Adds an element to the end of the last block,
+     * starting a new block if the last one is full.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(E element) {
+        checkSize(1);
+        int block = size >>> shift;
+        if (block == blockCount)
+            addBlock();
+        blocks[block][(heads[block] + size) & mask] = element;
+        size++;
+        if (blockCount > 2 << shift)
+            rebuild(shift + 1);
+        return true;
+    }
+
+    /**
+     * Adds an element to the specified location. The elements after it
+     * are moved only inside its block, every following block passes
+     * its last element to the front of the next block.
+     * @param index The place where the element should be inserted.
+     * @param element Data to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean add(int index, E element) {
+        checkAddIndex(index);
+        if (index == size)
+            return add(element);
+        checkSize(1);
+        if ((size & mask) == 0)
+            addBlock();
+        int block = index >>> shift;
+        for (int i = blockCount - 1; i > block; i--)
+            pushFront(i, removeLast(i - 1));
+
+        Object[] data = blocks[block];
+        int head = heads[block];
+        int position = index & mask;
+        int last = Math.min(size - (block << shift), mask);
+        for (int i = last; i > position; i--)
+            data[(head + i) & mask] = data[(head + i - 1) & mask];
+        data[(head + position) & mask] = element;
+        size++;
+        if (blockCount > 2 << shift)
+            rebuild(shift + 1);
+        return true;
+    }
+
+    /**
+     * Adds an array of elements to the end of the list.
+     * @param elements An array of objects to add.
+     * @return whether the add operation was successful.
+     */
+    @Override
+    public boolean addAll(E[] elements) {
+        if (elements.length == 0)
+            return false;
+        checkSize(elements.length);
+        for (E element : elements)
+            add(element);
+        return true;
+    }
+
+    /**
+     *  Removes the specified element. The elements after it are moved
+     *  only inside its block, every following block passes its first
+     *  element to the end of the previous block.
+     * @param index The place where the element should be deleted.
+     * @return Deleted Item.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        checkModifierIndex(index);
+        int block = index >>> shift;
+        Object[] data = blocks[block];
+        int head = heads[block];
+        int position = index & mask;
+        E result = (E) data[(head + position) & mask];
+        int last = Math.min(size - (block << shift), mask + 1) - 1;
+        for (int i = position; i < last; i++)
+            data[(head + i) & mask] = data[(head + i + 1) & mask];
+        data[(head + last) & mask] = null;
+
+        for (int i = block + 1; i < blockCount; i++)
+            pushBack(i - 1, removeFirst(i));
+        size--;
+        if (size == (blockCount - 1) << shift)
+            blocks[--blockCount] = null;
+        return result;
+    }
+
+    /**
+     * Removes all the elements and goes back to the smallest blocks.
+     */
+    @Override
+    public void clear() {
+        reset(MIN_SHIFT);
+    }
+
+    /**
+     *  Returns the specified element.
+     * @param index Indicates the element to be returned.
+     * @return The item that was requested.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkModifierIndex(index);
+        int block = index >>> shift;
+        return (E) blocks[block][(heads[block] + index) & mask];
+    }
+
+    /**
+     * Replaces the element with a new one.
+     * @param index Indicates the element to be replaced.
+     * @param element The element that needs to be replaced.
+     * @return The element that has been replaced.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        checkModifierIndex(index);
+        int block = index >>> shift;
+        int slot = (heads[block] + index) & mask;
+        E oldValue = (E) blocks[block][slot];
+        blocks[block][slot] = element;
+        return oldValue;
+    }
+
+    /**
+     * @return The number of stored items.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Indicates whether the list is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Takes the last element of a full block.
+     * @param block The number of the block.
+     * @return The element that was taken.
+     */
+    private Object removeLast(int block){
+        int slot = (heads[block] + mask) & mask;
+        Object element = blocks[block][slot];
+        blocks[block][slot] = null;
+        return element;
+    }
+
+    /**
+     * Puts an element before the first element of a block that has a free slot.
+     * @param block The number of the block.
+     * @param element The element to put.
+     */
+    private void pushFront(int block, Object element){
+        int head = (heads[block] - 1) & mask;
+        blocks[block][head] = element;
+        heads[block] = head;
+    }
+
+    /**
+     * Takes the first element of a block.
+     * @param block The number of the block.
+     * @return The element that was taken.
+     */
+    private Object removeFirst(int block){
+        int head = heads[block];
+        Object element = blocks[block][head];
+        blocks[block][head] = null;
+        heads[block] = (head + 1) & mask;
+        return element;
+    }
+
+    /**
+     * Puts an element into the last slot of a block that has only that slot free.
+     * @param block The number of the block.
+     * @param element The element to put.
+     */
+    private void pushBack(int block, Object element){
+        blocks[block][(heads[block] + mask) & mask] = element;
+    }
+
+    /**
+     * Starts a new empty block after the last one.
+     */
+    private void addBlock(){
+        if (blockCount == blocks.length) {
+            int length = Math.max(4, blockCount + (blockCount >> 1));
+            blocks = Arrays.copyOf(blocks, length);
+            heads = Arrays.copyOf(heads, length);
+        }
+        blocks[blockCount] = new Object[mask + 1];
+        heads[blockCount] = 0;
+        blockCount++;
+    }
+
+    /**
+     * Moves all elements into blocks of a new length.
+     * @param newShift The binary logarithm of the new length of a block.
+     */
+    private void rebuild(int newShift){
+        Object[][] oldBlocks = blocks;
+        int[] oldHeads = heads;
+        int oldMask = mask;
+        int oldShift = shift;
+        int count = size;
+        reset(newShift);
+        for (int i = 0; i < count; i++) {
+            int block = i >>> oldShift;
+            Object element = oldBlocks[block][(oldHeads[block] + i) & oldMask];
+            if ((i & mask) == 0)
+                addBlock();
+            blocks[i >>> shift][i & mask] = element;
+        }
+        size = count;
+    }
+
+    /**
+     * Drops all elements and sets the length of a block.
+     * @param newShift The binary logarithm of the length of a block.
+     */
+    private void reset(int newShift){
+        shift = newShift;
+        mask = (1 << newShift) - 1;
+        blocks = new Object[4][];
+        heads = new int[4];
+        blockCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @param count The number of elements to add.
+     * @throws OutOfMemoryError If the list cannot hold that many elements.
+     */
+    private void checkSize(int count){
+        if (count > MAX_SIZE - size)
+            throw new OutOfMemoryError("Required length " + size + " + " + count + " is too large");
+    }
+
+    /**
+     *  Checks whether it is possible to add an element to this position.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If the position is outside the list.
+     */
+    private void checkAddIndex(int index){
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+
+    /**
+     *  Checking for the presence of elements in the list.
+     * @param index The position to check.
+     * @throws IndexOutOfBoundsException If there is no element at this position.
+     */
+    private void checkModifierIndex(int index){
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+}
@@ -2,13 +2,30 @@ package grovox;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -206,6 +223,283 @@ class MyArrayListTest {
         assertEquals(isEmpty, false);
     }
 
+    @Test
+    void iterator() {
+        Integer[] addData = new Integer[]{1, 2, 3};
+        data.addAll(addData);
+
+        int i = 0;
+        for (Integer element : data)
+            assertEquals(element, addData[i++]);
+
+        assertEquals(i, addData.length);
+        Iterator<Integer> iterator = data.iterator();
+        for (int j = 0; j < addData.length; j++)
+            iterator.next();
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void spliterator() {
+        for (int i = 0; i < 100; i++)
+            data.add(i);
+
+        Spliterator<Integer> suffix = data.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(prefix.estimateSize(), 50);
+        assertEquals(suffix.estimateSize(), 50);
+        prefix.tryAdvance(element -> assertEquals(element, 0));
+        suffix.tryAdvance(element -> assertEquals(element, 50));
+    }
+
+    @Test
+    void streams() {
+        for (int i = 0; i < 100_000; i++)
+            data.add(i);
+
+        long sum = data.stream().mapToLong(Integer::longValue).sum();
+        long parallelSum = data.parallelStream().mapToLong(Integer::longValue).sum();
+
+        assertEquals(sum, 99_999L * 100_000 / 2);
+        assertEquals(parallelSum, sum);
+        assertEquals(data.parallelStream().limit(5).collect(Collectors.toList()), List.of(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    void streamsOfOtherLists() {
+        MyList<Integer> tiered = new TieredArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            tiered.add(i);
+
+        long sum = tiered.parallelStream().mapToLong(Integer::longValue).sum();
+
+        assertEquals(sum, 9_999L * 10_000 / 2);
+        int i = 0;
+        for (Integer element : tiered)
+            assertEquals(element, i++);
+    }
+
+    @Test
+    void addAllByIndex() {
+        data.addAll(new Integer[]{0, 1, 5, 6});
+
+        boolean changed = data.addAll(2, new Integer[]{2, 3, 4});
+
+        assertTrue(changed);
+        assertEquals(data.size(), 7);
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i), i);
+    }
+
+    @Test
+    void addAllByIndexGrowsOnce() {
+        data.addAll(new Integer[]{0, 99});
+        Integer[] middle = new Integer[98];
+        for (int i = 0; i < middle.length; i++)
+            middle[i] = i + 1;
+
+        data.addAll(1, middle);
+
+        assertEquals(data.size(), 100);
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i), i);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 1})
+    void addAllByNotExistingIndex(int index) {
+        assertThrows(IndexOutOfBoundsException.class, () -> data.addAll(index, new Integer[0]));
+    }
+
+    @Test
+    void addAllOfList() {
+        data.addAll(new Integer[]{0, 1});
+        MyList<Integer> other = new TieredArrayList<>();
+        other.addAll(new Integer[]{2, 3});
+
+        data.addAll(other);
+        data.addAll(data);
+
+        assertEquals(data.size(), 8);
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i), i % 4);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 10", "0, 3", "7, 10", "3, 6", "4, 4"})
+    void removeRange(int from, int to) {
+        for (int i = 0; i < 10; i++)
+            data.add(i);
+
+        data.removeRange(from, to);
+
+        assertEquals(data.size(), 10 - (to - from));
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i), i < from ? i : i + to - from);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"-1, 2", "2, 11", "5, 4"})
+    void removeNotExistingRange(int from, int to) {
+        for (int i = 0; i < 10; i++)
+            data.add(i);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> data.removeRange(from, to));
+        assertEquals(data.size(), 10);
+    }
+
+    @Test
+    void removeIf() {
+        for (int i = 0; i < 100; i++)
+            data.add(i);
+
+        boolean changed = data.removeIf(element -> element % 3 != 0);
+
+        assertTrue(changed);
+        assertEquals(data.size(), 34);
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i), i * 3);
+        assertFalse(data.removeIf(element -> element < 0));
+    }
+
+    @Test
+    void removeIfKeepsTheRestWhenTheFilterFails() {
+        for (int i = 0; i < 10; i++)
+            data.add(i);
+
+        assertThrows(IllegalStateException.class, () -> data.removeIf(element -> {
+            if (element == 5)
+                throw new IllegalStateException();
+            return element % 2 == 0;
+        }));
+
+        assertEquals(data.size(), 7);
+        Integer[] expected = {1, 3, 5, 6, 7, 8, 9};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(data.get(i), expected[i]);
+    }
+
+    @Test
+    void bulkOperationsOfOtherLists() {
+        MyList<Integer> tiered = new TieredArrayList<>();
+        tiered.addAll(new Integer[]{0, 1, 5, 6});
+
+        tiered.addAll(2, new Integer[]{2, 3, 4});
+        tiered.addAll(tiered);
+        tiered.removeRange(7, 9);
+        tiered.removeIf(element -> element == 6);
+
+        Integer[] expected = {0, 1, 2, 3, 4, 5, 2, 3, 4, 5};
+        assertEquals(tiered.size(), expected.length);
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(tiered.get(i), expected[i]);
+    }
+
+    @Test
+    void initialCapacity() {
+        MyArrayList<Integer> list = new MyArrayList<>(1000);
+
+        for (int i = 0; i < 1000; i++)
+            list.add(i);
+
+        assertEquals(list.capacity(), 1000);
+        assertThrows(IllegalArgumentException.class, () -> new MyArrayList<Integer>(-1));
+    }
+
+    @Test
+    void ensureCapacity() {
+        MyArrayList<Integer> list = new MyArrayList<>();
+        list.add(1);
+
+        list.ensureCapacity(500);
+
+        assertTrue(list.capacity() >= 500);
+        assertEquals(list.size(), 1);
+        assertEquals(list.get(0), 1);
+    }
+
+    @Test
+    void trimToSize() {
+        MyArrayList<Integer> list = new MyArrayList<>(100);
+        list.addAll(new Integer[]{1, 2, 3});
+
+        list.trimToSize();
+        list.add(4);
+
+        assertTrue(list.capacity() >= 4);
+        assertEquals(list.size(), 4);
+        assertEquals(list.get(3), 4);
+        list.clear();
+        list.trimToSize();
+        assertEquals(list.capacity(), 0);
+    }
+
+    @Test
+    void fixedGrowthPolicy() {
+        MyArrayList<Integer> list = new MyArrayList<>(10, GrowthPolicy.fixed(5));
+
+        for (int i = 0; i < 11; i++)
+            list.add(i);
+
+        assertEquals(list.capacity(), 15);
+    }
+
+    @Test
+    void cappedGrowthPolicy() {
+        MyArrayList<Integer> list = new MyArrayList<>(10, GrowthPolicy.geometric(4).capped(20));
+
+        list.addAll(new Integer[20]);
+
+        assertEquals(list.capacity(), 20);
+        assertThrows(OutOfMemoryError.class, () -> list.add(1));
+        assertEquals(list.size(), 20);
+    }
+
+    @Test
+    void autoShrink() {
+        MyArrayList<Integer> list = new MyArrayList<>(GrowthPolicy.DEFAULT.withAutoShrink(4));
+        for (int i = 0; i < 1000; i++)
+            list.add(i);
+        int capacity = list.capacity();
+
+        list.removeRange(200, 1000);
+
+        assertTrue(list.capacity() < capacity);
+        assertEquals(list.capacity(), 400);
+        list.remove(199);
+        assertEquals(list.capacity(), 400);
+        for (int i = 0; i < list.size(); i++)
+            assertEquals(list.get(i), i);
+        list.clear();
+        assertEquals(list.capacity(), 10);
+    }
+
+    @Test
+    void cappedPolicyLimitsTheFirstArray() {
+        MyArrayList<Integer> list = new MyArrayList<>(GrowthPolicy.geometric(1.5).capped(4));
+
+        list.add(0);
+        assertTrue(list.capacity() <= 4);
+        list.add(1);
+        list.add(2);
+        list.add(3);
+
+        assertEquals(list.capacity(), 4);
+        assertThrows(OutOfMemoryError.class, () -> list.add(4));
+        assertEquals(list.size(), 4);
+    }
+
+    @Test
+    void fixedPolicyChoosesTheFirstArray() {
+        MyArrayList<Integer> list = new MyArrayList<>(0, GrowthPolicy.fixed(100));
+
+        list.add(0);
+
+        assertEquals(list.capacity(), 100);
+    }
+
     @Test
     void grow(){
         Integer[] addData = new Integer[100];
@@ -229,4 +523,66 @@ class MyArrayListTest {
 
     }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 16384, 100_000})
+    void writeToAndReadFromFile(int size, @TempDir Path directory) throws IOException {
+        MyArrayList<Long> list = new MyArrayList<>();
+        for (long i = 0; i < size; i++)
+            list.add(i * i - 7);
+        Path file = directory.resolve("list.bin");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            list.writeTo(channel, Codec.LONG);
+        }
+        MyArrayList<Long> read;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read = MyArrayList.readFrom(channel, Codec.LONG);
+        }
+
+        assertEquals(file.toFile().length(), 12 + 8L * size);
+        assertEquals(read.size(), size);
+        assertEquals(read.capacity(), size);
+        for (int i = 0; i < size; i++)
+            assertEquals(read.get(i), list.get(i));
+    }
+
+    @Test
+    void writeToAndReadFromStreamChannels() throws IOException {
+        MyArrayList<Integer> list = new MyArrayList<>();
+        for (int i = 0; i < 70_000; i++)
+            list.add(i * 31);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel output = Channels.newChannel(bytes);
+
+        list.writeTo(output, Codec.INT);
+        list.writeTo(output, Codec.INT);
+        ReadableByteChannel input = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        MyArrayList<Integer> first = MyArrayList.readFrom(input, Codec.INT);
+        MyArrayList<Integer> second = MyArrayList.readFrom(input, Codec.INT);
+
+        assertEquals(first.size(), 70_000);
+        assertEquals(second.size(), 70_000);
+        for (int i = 0; i < 70_000; i++) {
+            assertEquals(first.get(i), i * 31);
+            assertEquals(second.get(i), i * 31);
+        }
+    }
+
+    @Test
+    void readFromRejectsBrokenSnapshots() throws IOException {
+        MyArrayList<Integer> list = new MyArrayList<>();
+        list.addAll(new Integer[]{1, 2, 3});
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        list.writeTo(Channels.newChannel(bytes), Codec.INT);
+        byte[] snapshot = bytes.toByteArray();
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+        byte[] garbage = new byte[snapshot.length];
+
+        assertThrows(EOFException.class,
+                () -> MyArrayList.readFrom(Channels.newChannel(new ByteArrayInputStream(truncated)), Codec.INT));
+        assertThrows(IOException.class,
+                () -> MyArrayList.readFrom(Channels.newChannel(new ByteArrayInputStream(garbage)), Codec.INT));
+        assertThrows(IOException.class,
+                () -> MyArrayList.readFrom(Channels.newChannel(new ByteArrayInputStream(snapshot)), Codec.LONG));
+    }
+}
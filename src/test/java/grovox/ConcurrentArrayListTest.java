@@ -0,0 +1,135 @@
+package grovox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentArrayListTest {
+
+    private ConcurrentArrayList<Integer> data;
+
+    @BeforeEach
+    void prepareData(){
+        data = new ConcurrentArrayList<>();
+    }
+
+    @Test
+    void addAndGet() {
+        for (int i = 0; i < 10_000; i++)
+            data.add(i);
+
+        assertEquals(data.size(), 10_000);
+        for (int i = 0; i < 10_000; i++)
+            assertEquals(data.get(i), i);
+    }
+
+    @Test
+    void addAllKeepsElementsTogether() {
+        data.add(-1);
+
+        data.addAll(new Integer[]{1, 2, 3});
+
+        assertEquals(data.size(), 4);
+        assertEquals(data.get(1), 1);
+        assertEquals(data.get(3), 3);
+    }
+
+    @Test
+    void concurrentAppends() throws InterruptedException {
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i += 2) {
+                    if (i % 10 == 0)
+                        data.addAll(new Integer[]{base + i, base + i + 1});
+                    else {
+                        data.add(base + i);
+                        data.add(base + i + 1);
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        start.countDown();
+        for (Thread writer : writers)
+            writer.join();
+
+        assertEquals(data.size(), threads * perThread);
+        boolean[] seen = new boolean[threads * perThread];
+        for (int i = 0; i < data.size(); i++) {
+            assertFalse(seen[data.get(i)]);
+            seen[data.get(i)] = true;
+        }
+    }
+
+    @Test
+    void snapshotWhileWriting() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get())
+                data.add(i++ % 1000);
+        });
+        writer.start();
+        while (data.size() < 100_000)
+            Thread.onSpinWait();
+
+        MyArrayList<Integer> snapshot = data.snapshot();
+        QuickSort.runSorting(snapshot);
+
+        running.set(false);
+        writer.join();
+        assertTrue(snapshot.size() >= 100_000);
+        for (int i = 1; i < snapshot.size(); i++)
+            assertTrue(snapshot.get(i - 1) <= snapshot.get(i));
+        assertTrue(data.size() >= snapshot.size());
+    }
+
+    @Test
+    void setAndClear() {
+        data.addAll(new Integer[]{1, 2, 3});
+
+        int oldElement = data.set(1, 123);
+
+        assertEquals(oldElement, 2);
+        assertEquals(data.get(1), 123);
+        data.clear();
+        assertTrue(data.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> data.get(0));
+    }
+
+    @Test
+    void snapshotOfEmptyList() {
+
+        MyArrayList<Integer> snapshot = data.snapshot();
+
+        assertTrue(snapshot.isEmpty());
+        snapshot.add(1);
+        assertEquals(snapshot.get(0), 1);
+    }
+
+    @Test
+    void positionalChangesAreNotSupported() {
+        data.add(1);
+
+        assertThrows(UnsupportedOperationException.class, () -> data.add(0, 2));
+        assertThrows(UnsupportedOperationException.class, () -> data.remove(0));
+    }
+}
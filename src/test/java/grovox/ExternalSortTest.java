@@ -0,0 +1,138 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSortTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Integer> randomInts(int size){
+        Random random = new Random(size);
+        List<Integer> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            data.add(random.nextInt(size));
+        return data;
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"10000, 100, 2", "10000, 100, 3", "10000, 1000, 64", "1000, 1, 5", "999, 1000, 2"})
+    void sort(int size, int memoryBudget, int fanIn) throws IOException {
+        List<Integer> data = randomInts(size);
+        ExternalSort<Integer> sort = new ExternalSort<>(Comparator.naturalOrder(), Serializer.INT,
+                memoryBudget, fanIn, 512, directory);
+        List<Integer> sorted = new ArrayList<>();
+
+        try (ExternalSort.Output<Integer> output = sort.sort(data.iterator())) {
+            while (output.hasNext())
+                sorted.add(output.next());
+        }
+
+        Collections.sort(data);
+        assertEquals(sorted, data);
+        assertEquals(files(), 0);
+    }
+
+    @Test
+    void sortInMemoryWritesNothing() throws IOException {
+        ExternalSort<Integer> sort = new ExternalSort<>(Comparator.reverseOrder(), Serializer.INT,
+                100, 2, 512, directory);
+
+        try (ExternalSort.Output<Integer> output = sort.sort(Stream.of(3, 1, 2))) {
+            assertEquals(files(), 0);
+            assertEquals(output.next(), 3);
+            assertEquals(output.next(), 2);
+            assertEquals(output.next(), 1);
+            assertFalse(output.hasNext());
+        }
+    }
+
+    @Test
+    void sortEmptyInput() throws IOException {
+        ExternalSort<Integer> sort = new ExternalSort<>(Comparator.naturalOrder(), Serializer.INT);
+
+        try (ExternalSort.Output<Integer> output = sort.sort(Stream.empty())) {
+            assertFalse(output.hasNext());
+        }
+    }
+
+    @Test
+    void sortStrings() throws IOException {
+        List<String> data = new ArrayList<>();
+        for (Integer value : randomInts(2000))
+            data.add("value " + value + "é".repeat(value % 5));
+        ExternalSort<String> sort = new ExternalSort<>(Comparator.naturalOrder(), Serializer.STRING,
+                64, 4, 256, directory);
+
+        List<String> sorted;
+        try (Stream<String> output = sort.sort(data.stream()).stream()) {
+            sorted = output.collect(Collectors.toList());
+        }
+
+        Collections.sort(data);
+        assertEquals(sorted, data);
+        assertEquals(files(), 0);
+    }
+
+    @Test
+    void sortWithCodec() throws IOException {
+        List<Integer> data = randomInts(5000);
+        ExternalSort<Long> sort = new ExternalSort<>(Comparator.naturalOrder(), Serializer.of(Codec.LONG),
+                300, 4, 512, directory);
+
+        List<Long> sorted = new ArrayList<>();
+        try (ExternalSort.Output<Long> output = sort.sort(data.stream().map(Integer::longValue))) {
+            output.forEachRemaining(sorted::add);
+        }
+
+        assertEquals(sorted, data.stream().map(Integer::longValue).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void closeDeletesUnreadRuns() throws IOException {
+        ExternalSort<Integer> sort = new ExternalSort<>(Comparator.naturalOrder(), Serializer.INT,
+                100, 4, 512, directory);
+
+        ExternalSort.Output<Integer> output = sort.sort(randomInts(1000).iterator());
+        output.next();
+        assertTrue(files() > 0);
+        output.close();
+
+        assertEquals(files(), 0);
+        assertFalse(output.hasNext());
+    }
+
+    @Test
+    void illegalArguments() {
+        Comparator<Integer> comparator = Comparator.naturalOrder();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSort<>(comparator, Serializer.INT, 0, 2, 512, directory));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSort<>(comparator, Serializer.INT, 10, 1, 512, directory));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSort<>(comparator, Serializer.INT, 10, 2, 0, directory));
+    }
+}
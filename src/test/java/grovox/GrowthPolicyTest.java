@@ -0,0 +1,92 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrowthPolicyTest {
+
+    @Test
+    void geometric() {
+        GrowthPolicy policy = GrowthPolicy.geometric(2);
+
+        assertEquals(policy.grow(10, 11), 20);
+        assertEquals(policy.grow(10, 50), 50);
+        assertEquals(policy.grow(Integer.MAX_VALUE / 2 + 1, Integer.MAX_VALUE / 2 + 2), Integer.MAX_VALUE);
+        assertEquals(policy.shrink(100, 0), 100);
+    }
+
+    @Test
+    void fixed() {
+        GrowthPolicy policy = GrowthPolicy.fixed(100);
+
+        assertEquals(policy.grow(10, 11), 110);
+        assertEquals(policy.grow(10, 500), 500);
+        assertEquals(policy.grow(Integer.MAX_VALUE - 10, Integer.MAX_VALUE - 9), Integer.MAX_VALUE);
+    }
+
+    @Test
+    void capped() {
+        GrowthPolicy policy = GrowthPolicy.geometric(2).capped(15);
+
+        assertEquals(policy.grow(10, 11), 15);
+        assertThrows(OutOfMemoryError.class, () -> policy.grow(15, 16));
+    }
+
+    @Test
+    void autoShrink() {
+        GrowthPolicy policy = GrowthPolicy.DEFAULT.withAutoShrink(4);
+
+        assertEquals(policy.grow(10, 11), 15);
+        assertEquals(policy.shrink(100, 26), 100);
+        assertEquals(policy.shrink(100, 25), 50);
+        assertEquals(policy.shrink(100, 0), 10);
+        assertEquals(policy.shrink(10, 0), 10);
+    }
+
+    @Test
+    void autoShrinkKeepsTheShrinkOfThePolicy() {
+        GrowthPolicy halving = new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return Math.max(minCapacity, capacity * 2);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return size < capacity / 2 ? capacity / 2 : capacity;
+            }
+        };
+
+        GrowthPolicy policy = halving.withAutoShrink(8);
+
+        assertEquals(policy.shrink(100, 10), 20);
+        assertEquals(policy.shrink(100, 40), 50);
+        assertEquals(policy.shrink(100, 60), 100);
+    }
+
+    @Test
+    void initialCapacity() {
+        assertEquals(GrowthPolicy.DEFAULT.initialCapacity(1, 10), 10);
+        assertEquals(GrowthPolicy.DEFAULT.initialCapacity(50, 10), 50);
+        assertEquals(GrowthPolicy.fixed(100).initialCapacity(1, 10), 100);
+        assertEquals(GrowthPolicy.DEFAULT.capped(4).initialCapacity(1, 10), 4);
+        assertEquals(GrowthPolicy.fixed(100).capped(20).withAutoShrink(4).initialCapacity(1, 10), 20);
+        assertThrows(OutOfMemoryError.class, () -> GrowthPolicy.DEFAULT.capped(4).initialCapacity(5, 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1, 0.5, -2, Double.NaN})
+    void illegalFactor(double factor) {
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(factor));
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixed(0));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.DEFAULT.capped(-1));
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.DEFAULT.withAutoShrink(2));
+    }
+}
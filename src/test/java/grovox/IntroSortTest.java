@@ -0,0 +1,131 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntroSortTest {
+
+    private static int[] pattern(String name, int size){
+        Random random = new Random(size);
+        int[] data = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (name) {
+                case "random": data[i] = random.nextInt(); break;
+                case "fewValues": data[i] = random.nextInt(4); break;
+                case "equal": data[i] = 7; break;
+                case "ascending": data[i] = i; break;
+                case "descending": data[i] = size - i; break;
+                case "organPipe": data[i] = Math.min(i, size - i); break;
+                case "sawTooth": data[i] = i % 100; break;
+                default: throw new IllegalArgumentException(name);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Builds the sequence that makes a median of three quicksort quadratic.
+     */
+    private static int[] medianOfThreeKiller(int size){
+        int[] data = new int[size];
+        int half = size / 2;
+        for (int i = 0; i < half; i++) {
+            if (i % 2 == 0) {
+                data[i] = i + 1;
+            } else {
+                data[i] = half + i + (half % 2 == 0 ? 0 : 1);
+            }
+            data[half + i] = 2 * (i + 1);
+        }
+        return data;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "fewValues", "equal", "ascending", "descending", "organPipe", "sawTooth"})
+    void sortIntArrays(String name) {
+        for (int size : new int[]{0, 1, 2, 15, 16, 17, 129, 1000, 100_000}) {
+            int[] data = pattern(name, size);
+            int[] expected = data.clone();
+            Arrays.sort(expected);
+
+            IntroSort.sort(data, 0, size);
+
+            assertArrayEquals(expected, data, name + " " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "fewValues", "equal", "descending", "organPipe"})
+    void sortObjectArraysAndSortables(String name) {
+        int[] source = pattern(name, 10_000);
+        Integer[] objects = Arrays.stream(source).boxed().toArray(Integer[]::new);
+        long[] longs = Arrays.stream(source).asLongStream().toArray();
+        Integer[] expected = objects.clone();
+        Arrays.sort(expected);
+
+        IntroSort.sort(objects, 0, objects.length, Comparator.<Integer>naturalOrder());
+        IntroSort.sort(new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return Long.compare(longs[i], longs[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                long temp = longs[i];
+                longs[i] = longs[j];
+                longs[j] = temp;
+            }
+        }, 0, longs.length);
+
+        assertArrayEquals(expected, objects);
+        for (int i = 0; i < longs.length; i++)
+            assertEquals(expected[i].longValue(), longs[i]);
+    }
+
+    @Test
+    void sortSubRange() {
+        double[] data = new double[]{9, 8, 3, 1, 2, Double.NaN, -0.0, 0.0, -5, 7};
+
+        IntroSort.sort(data, 2, 8);
+
+        assertArrayEquals(new double[]{9, 8, -0.0, 0.0, 1, 2, 3, Double.NaN, -5, 7}, data);
+    }
+
+    @Test
+    void sortMedianOfThreeKiller() {
+        int[] data = medianOfThreeKiller(1 << 20);
+        int[] expected = data.clone();
+        Arrays.sort(expected);
+
+        IntroSort.sort(data, 0, data.length);
+
+        assertArrayEquals(expected, data);
+    }
+
+    @Test
+    void heapSortFallback() {
+        Integer[] data = Arrays.stream(pattern("random", 5000)).boxed().toArray(Integer[]::new);
+        Integer[] expected = data.clone();
+        Arrays.sort(expected);
+
+        IntroSort.sort(data, 0, data.length, Comparator.<Integer>naturalOrder(), 0);
+
+        assertArrayEquals(expected, data);
+    }
+
+    @Test
+    void depthLimit() {
+
+        assertEquals(0, IntroSort.depthLimit(1));
+        assertEquals(2, IntroSort.depthLimit(2));
+        assertEquals(40, IntroSort.depthLimit(1 << 20));
+    }
+}
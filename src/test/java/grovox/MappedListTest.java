@@ -0,0 +1,96 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedListTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopen() throws IOException {
+        Path file = directory.resolve("list.bin");
+        try (MappedList<Long> data = MappedList.open(file, Codec.LONG)) {
+            for (long i = 0; i < 5000; i++)
+                data.add(i * 3);
+            data.remove(0);
+            data.add(0, -1L);
+            data.force();
+        }
+
+        try (MappedList<Long> data = MappedList.open(file, Codec.LONG)) {
+            assertEquals(data.size(), 5000);
+            assertEquals(data.get(0), -1L);
+            for (int i = 1; i < 5000; i++)
+                assertEquals(data.get(i), i * 3L);
+        }
+        assertEquals(Files.size(file) >= MappedList.HEADER_BYTES + 5000L * Long.BYTES, true);
+    }
+
+    @Test
+    void sortAndReopen() throws IOException {
+        Path file = directory.resolve("sorted.bin");
+        Random random = new Random(9);
+        try (MappedList<Integer> data = MappedList.open(file, Codec.INT)) {
+            for (int i = 0; i < 3000; i++)
+                data.add(random.nextInt());
+
+            boolean result = QuickSort.runSorting(data);
+
+            assertTrue(result);
+        }
+
+        try (MappedList<Integer> data = MappedList.open(file, Codec.INT)) {
+            for (int i = 1; i < data.size(); i++)
+                assertTrue(data.get(i - 1) <= data.get(i));
+        }
+    }
+
+    @Test
+    void clearIsStored() throws IOException {
+        Path file = directory.resolve("cleared.bin");
+        try (MappedList<Integer> data = MappedList.open(file, Codec.INT)) {
+            data.addAll(new Integer[]{1, 2, 3});
+            data.clear();
+        }
+
+        try (MappedList<Integer> data = MappedList.open(file, Codec.INT)) {
+            assertTrue(data.isEmpty());
+        }
+    }
+
+    @Test
+    void openWithOtherWidth() throws IOException {
+        Path file = directory.resolve("ints.bin");
+        MappedList.open(file, Codec.INT).close();
+
+        assertThrows(IOException.class, () -> MappedList.open(file, Codec.LONG));
+    }
+
+    @Test
+    void openNotListFile() throws IOException {
+        Path file = directory.resolve("text.txt");
+        Files.writeString(file, "this is not a list at all");
+
+        assertThrows(IOException.class, () -> MappedList.open(file, Codec.INT));
+    }
+
+    @Test
+    void closed() throws IOException {
+        MappedList<Integer> data = MappedList.open(directory.resolve("closed.bin"), Codec.INT);
+
+        data.close();
+
+        assertTrue(data.isClosed());
+        assertThrows(IllegalStateException.class, () -> data.add(1));
+        assertThrows(IllegalStateException.class, data::force);
+    }
+}
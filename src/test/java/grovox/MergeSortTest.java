@@ -0,0 +1,117 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergeSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 31, 32, 33, 65, 1000, 100_000};
+
+    /**
+     * An element with a key that is sorted and the place where it was before the sorting.
+     */
+    private static final class Entry {
+        final int key;
+        final int index;
+
+        Entry(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+
+    private static final Comparator<Object> BY_KEY = Comparator.comparingInt(entry -> ((Entry) entry).key);
+
+    private static Object[] pattern(String name, int size){
+        Random random = new Random(size);
+        Object[] data = new Object[size];
+        for (int i = 0; i < size; i++) {
+            int key;
+            switch (name) {
+                case "random": key = random.nextInt(); break;
+                case "fewValues": key = random.nextInt(4); break;
+                case "equal": key = 7; break;
+                case "ascending": key = i; break;
+                case "descending": key = size - i; break;
+                case "descendingWithDuplicates": key = (size - i) / 3; break;
+                case "almostSorted": key = random.nextInt(100) == 0 ? random.nextInt(size) : i; break;
+                case "organPipe": key = Math.min(i, size - i); break;
+                case "sawTooth": key = i % 100; break;
+                case "interleaved": key = i % 2 == 0 ? i : size + i; break;
+                default: throw new IllegalArgumentException(name);
+            }
+            data[i] = new Entry(key, i);
+        }
+        return data;
+    }
+
+    private static void assertSortedAndStable(Object[] data, String message){
+        for (int i = 1; i < data.length; i++) {
+            Entry previous = (Entry) data[i - 1];
+            Entry current = (Entry) data[i];
+            assertTrue(previous.key <= current.key, message);
+            if (previous.key == current.key)
+                assertTrue(previous.index < current.index, message);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "fewValues", "equal", "ascending", "descending", "descendingWithDuplicates",
+            "almostSorted", "organPipe", "sawTooth", "interleaved"})
+    void sort(String name) {
+        for (int size : SIZES) {
+            Object[] data = pattern(name, size);
+
+            MergeSort.sort(data, 0, size, BY_KEY);
+
+            assertSortedAndStable(data, name + " " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ascending", "descending"})
+    void sortedInputTakesOnePass(String name) {
+        Object[] data = pattern(name, 100_000);
+        AtomicLong comparisons = new AtomicLong();
+
+        MergeSort.sort(data, 0, data.length, (a, b) -> {
+            comparisons.incrementAndGet();
+            return BY_KEY.compare(a, b);
+        });
+
+        assertSortedAndStable(data, name);
+        assertEquals(comparisons.get(), data.length - 1);
+    }
+
+    @Test
+    void sortRange() {
+        Object[] data = pattern("descending", 1000);
+        Object first = data[0];
+        Object last = data[999];
+
+        MergeSort.sort(data, 1, 999, BY_KEY);
+
+        assertSame(data[0], first);
+        assertSame(data[999], last);
+        for (int i = 2; i < 999; i++)
+            assertTrue(((Entry) data[i - 1]).key <= ((Entry) data[i]).key);
+    }
+
+    @Test
+    void minRunLength() {
+        assertEquals(MergeSort.minRunLength(31), 31);
+        assertEquals(MergeSort.minRunLength(64), 16);
+        assertEquals(MergeSort.minRunLength(65), 17);
+        for (int length = 32; length < 100_000; length += 997) {
+            int minRun = MergeSort.minRunLength(length);
+            assertTrue(minRun >= 16 && minRun <= 32, String.valueOf(length));
+        }
+    }
+}
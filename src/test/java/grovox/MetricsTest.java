@@ -0,0 +1,187 @@
+package grovox;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    /**
+     * Collects everything it is told.
+     */
+    private static final class Recorder implements MetricsListener {
+        final List<int[]> grows = new ArrayList<>();
+        final List<Integer> shifts = new ArrayList<>();
+        final List<SortStats> sorts = new ArrayList<>();
+
+        @Override
+        public synchronized void onGrow(MyList<?> list, int oldCapacity, int newCapacity, int copied) {
+            grows.add(new int[]{oldCapacity, newCapacity, copied});
+        }
+
+        @Override
+        public synchronized void onShift(MyList<?> list, int shifted) {
+            shifts.add(shifted);
+        }
+
+        @Override
+        public synchronized void onSort(SortStats stats) {
+            sorts.add(stats);
+        }
+    }
+
+    @AfterEach
+    void removeListener(){
+        Metrics.setListener(null);
+    }
+
+    private static MyArrayList<Integer> randomList(int size){
+        MyArrayList<Integer> list = new MyArrayList<>(size);
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++)
+            list.add(random.nextInt());
+        return list;
+    }
+
+    @Test
+    void nothingIsReportedWithoutListener() {
+        Recorder recorder = new Recorder();
+        MyArrayList<Integer> list = new MyArrayList<>();
+
+        list.addAll(new Integer[20]);
+        Metrics.setListener(recorder);
+        Metrics.setListener(null);
+        list.add(0, 1);
+
+        assertTrue(recorder.grows.isEmpty());
+        assertTrue(recorder.shifts.isEmpty());
+    }
+
+    @Test
+    void grow() {
+        Recorder recorder = new Recorder();
+        Metrics.setListener(recorder);
+        MyArrayList<Integer> list = new MyArrayList<>();
+
+        for (int i = 0; i < 11; i++)
+            list.add(i);
+
+        assertEquals(recorder.grows.size(), 2);
+        assertArrayEquals(recorder.grows.get(0), new int[]{0, 10, 0});
+        assertArrayEquals(recorder.grows.get(1), new int[]{10, 15, 10});
+    }
+
+    @Test
+    void shifts() {
+        MyArrayList<Integer> list = new MyArrayList<>(100);
+        list.addAll(new Integer[10]);
+        Recorder recorder = new Recorder();
+        Metrics.setListener(recorder);
+
+        list.add(2, 1);
+        list.remove(0);
+        list.add(list.size(), 1);
+        list.removeRange(0, 5);
+        list.addAll(1, new Integer[3]);
+
+        assertEquals(recorder.shifts, List.of(8, 10, 6, 5));
+    }
+
+    @Test
+    void sorting() {
+        MyArrayList<Integer> list = randomList(10_000);
+        Recorder recorder = new Recorder();
+        Metrics.setListener(recorder);
+
+        QuickSort.runSorting(list);
+
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1) <= list.get(i));
+        assertEquals(recorder.sorts.size(), 1);
+        SortStats stats = recorder.sorts.get(0);
+        assertEquals(stats.size(), 10_000);
+        assertTrue(stats.comparisons() > 10_000);
+        assertTrue(stats.swaps() > 0);
+        assertTrue(stats.maxDepth() > 0 && stats.maxDepth() <= IntroSort.depthLimit(10_000));
+        assertTrue(stats.nanos() > 0);
+        assertFalse(stats.parallel());
+    }
+
+    @Test
+    void parallelSorting() {
+        MyArrayList<Integer> list = randomList(50_000);
+        Recorder recorder = new Recorder();
+        Metrics.setListener(recorder);
+
+        QuickSort.runParallelSorting(list, Comparator.naturalOrder(), new ForkJoinPool(4), 1000);
+
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1) <= list.get(i));
+        SortStats stats = recorder.sorts.get(0);
+        assertTrue(stats.parallel());
+        assertTrue(stats.comparisons() > 50_000);
+        assertTrue(stats.maxDepth() > 0);
+    }
+
+    @Test
+    void primitiveSorting() {
+        MyIntArrayList list = new MyIntArrayList();
+        for (int i = 1000; i > 0; i--)
+            list.add(i);
+        Recorder recorder = new Recorder();
+        Metrics.setListener(recorder);
+
+        QuickSort.runSorting(list);
+
+        for (int i = 0; i < list.size(); i++)
+            assertEquals(list.get(i), i + 1);
+        assertEquals(recorder.sorts.get(0).size(), 1000);
+    }
+
+    @Test
+    void andThen() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        Metrics.setListener(first.andThen(second));
+
+        new MyArrayList<Integer>().add(1);
+
+        assertEquals(first.grows.size(), 1);
+        assertEquals(second.grows.size(), 1);
+    }
+
+    @Test
+    void jfrEvents(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("metrics.jfr");
+        Metrics.setListener(MetricsListener.jfr());
+
+        try (Recording recording = new Recording()) {
+            recording.enable("grovox.Grow");
+            recording.enable("grovox.Sort");
+            recording.start();
+            QuickSort.runSorting(randomList(1000));
+            new MyArrayList<Integer>().addAll(new Integer[20]);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> names = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file))
+            names.add(event.getEventType().getName());
+        assertTrue(names.contains("grovox.Grow"));
+        assertTrue(names.contains("grovox.Sort"));
+        assertFalse(names.contains("grovox.Shift"));
+    }
+}
@@ -0,0 +1,151 @@
+package grovox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapListTest {
+
+    private OffHeapList<Long> data;
+
+    @BeforeEach
+    void prepareData(){
+        data = new OffHeapList<>(Codec.LONG);
+    }
+
+    @AfterEach
+    void closeData(){
+        data.close();
+    }
+
+    @Test
+    void addAndGrow() {
+        for (long i = 0; i < 1000; i++)
+            data.add(i);
+
+        assertEquals(data.size(), 1000);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(data.get(i), i);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 3, 5})
+    void addByIndex(int index) {
+        data.addAll(new Long[]{0L, 1L, 2L, 3L, 4L});
+
+        data.add(index, 123L);
+
+        assertEquals(data.get(index), 123L);
+        assertEquals(data.size(), 6);
+        for (int i = 0; i < index; i++)
+            assertEquals(data.get(i), i);
+        for (int i = index + 1; i < data.size(); i++)
+            assertEquals(data.get(i), i - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void remove(int index) {
+        Long[] addData = new Long[]{1L, 2L, 3L};
+        data.addAll(addData);
+
+        long removeElement = data.remove(index);
+
+        assertEquals(removeElement, addData[index]);
+        assertEquals(data.size(), 2);
+        for (int i = 0, j = 0; i < addData.length; i++)
+            if (i != index)
+                assertEquals(data.get(j++), addData[i]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 3})
+    void getByNotExistingIndex(int index) {
+        data.addAll(new Long[]{1L, 2L, 3L});
+
+        assertThrows(IndexOutOfBoundsException.class, () -> data.get(index));
+    }
+
+    @Test
+    void setAndClear() {
+        data.addAll(new Long[]{1L, 2L, 3L});
+
+        long oldElement = data.set(1, 123L);
+
+        assertEquals(oldElement, 2L);
+        assertEquals(data.get(1), 123L);
+        data.clear();
+        assertTrue(data.isEmpty());
+    }
+
+    @Test
+    void closed() {
+        data.add(1L);
+
+        data.close();
+
+        assertTrue(data.isClosed());
+        assertEquals(data.size(), 0);
+        assertTrue(data.isEmpty());
+        assertThrows(IllegalStateException.class, () -> data.add(2L));
+        assertThrows(IllegalStateException.class, () -> data.get(0));
+    }
+
+    @Test
+    void sortRecords() {
+        Codec<int[]> pairs = new Codec<>() {
+            @Override
+            public int width() {
+                return 12;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, int[] element) {
+                buffer.putLong(offset, element[0]);
+                buffer.putInt(offset + 8, element[1]);
+            }
+
+            @Override
+            public int[] read(ByteBuffer buffer, int offset) {
+                return new int[]{(int) buffer.getLong(offset), buffer.getInt(offset + 8)};
+            }
+        };
+        Random random = new Random(5);
+        int[] keys = new int[10_000];
+        try (OffHeapList<int[]> records = new OffHeapList<>(pairs)) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt(1000);
+                records.add(new int[]{keys[i], -keys[i]});
+            }
+
+            boolean result = QuickSort.runSorting(records, Comparator.comparingInt(r -> r[0]));
+
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                assertEquals(records.get(i)[0], keys[i]);
+                assertEquals(records.get(i)[1], -keys[i]);
+            }
+            assertTrue(result);
+        }
+    }
+
+    @Test
+    void sortComparable() {
+        data.addAll(new Long[]{5L, -1L, 3L, Long.MAX_VALUE, 0L});
+
+        QuickSort.runParallelSorting(data);
+
+        Long[] sorted = new Long[]{-1L, 0L, 3L, 5L, Long.MAX_VALUE};
+        for (int i = 0; i < sorted.length; i++)
+            assertEquals(data.get(i), sorted[i]);
+    }
+}
@@ -0,0 +1,152 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedSortedListTest {
+
+    private static long[] sortedLongs(int size, long bound, long seed) {
+        Random random = new Random(seed);
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++)
+            values[i] = Math.floorMod(random.nextLong(), bound) - bound / 2;
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static int lowerBound(long[] values, long value) {
+        int index = 0;
+        while (index < values.length && values[index] < value)
+            index++;
+        return index;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 127, 128, 129, 1000, 100_000})
+    void getAndIterate(int size) {
+        long[] values = sortedLongs(size, 1L << 40, size);
+
+        PackedSortedList<Long> list = PackedSortedList.ofLongs(values.clone());
+
+        assertEquals(list.size(), size);
+        assertEquals(list.isEmpty(), size == 0);
+        for (int i = 0; i < size; i++)
+            assertEquals(list.getLong(i), values[i]);
+        Iterator<Long> iterator = list.iterator();
+        for (long value : values)
+            assertEquals(iterator.next(), value);
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertArrayEquals(list.stream().mapToLong(Long::longValue).toArray(), values);
+    }
+
+    @Test
+    void extremeAndEqualValues() {
+        long[] values = new long[300];
+        Arrays.fill(values, 0, 140, Long.MIN_VALUE);
+        Arrays.fill(values, 140, 200, 5);
+        Arrays.fill(values, 200, 300, Long.MAX_VALUE);
+
+        PackedSortedList<Long> list = PackedSortedList.ofLongs(values.clone());
+
+        for (int i = 0; i < values.length; i++)
+            assertEquals(list.getLong(i), values[i]);
+        assertTrue(list.contains(Long.MIN_VALUE));
+        assertTrue(list.contains(5));
+        assertTrue(list.contains(Long.MAX_VALUE));
+        assertFalse(list.contains(0));
+        assertEquals(list.lowerBound(5), 140);
+        assertEquals(list.lowerBound(6), 200);
+        assertEquals(list.lowerBound(Long.MIN_VALUE), 0);
+    }
+
+    @Test
+    void containsAndLowerBound() {
+        long[] values = sortedLongs(5000, 20_000, 1);
+
+        PackedSortedList<Long> list = PackedSortedList.ofLongs(values.clone());
+
+        for (long value = -10_002; value <= 10_002; value++) {
+            assertEquals(list.contains(value), Arrays.binarySearch(values, value) >= 0, "value " + value);
+            assertEquals(list.lowerBound(value), lowerBound(values, value), "value " + value);
+        }
+    }
+
+    @Test
+    void rangeIteration() {
+        long[] values = sortedLongs(3000, 10_000, 2);
+        PackedSortedList<Long> list = PackedSortedList.ofLongs(values.clone());
+        Random random = new Random(3);
+
+        for (int test = 0; test < 200; test++) {
+            long from = random.nextInt(12_000) - 6000;
+            long to = from + random.nextInt(3000);
+            long[] expected = Arrays.stream(values).filter(value -> value >= from && value < to).toArray();
+
+            PrimitiveIterator.OfLong range = list.range(from, to);
+
+            for (long value : expected)
+                assertEquals(range.nextLong(), value);
+            assertFalse(range.hasNext());
+        }
+        assertFalse(list.range(10, 5).hasNext());
+    }
+
+    @Test
+    void intsFromSortedLists() {
+        MyIntArrayList ids = new MyIntArrayList();
+        ids.addAll(new Random(4).ints(10_000, 0, 1_000_000).toArray());
+        QuickSort.runSorting(ids);
+        MyArrayList<Integer> boxed = new MyArrayList<>();
+        for (int i = 0; i < ids.size(); i++)
+            boxed.add(ids.get(i));
+
+        PackedSortedList<Integer> fromInts = PackedSortedList.ofInts(ids);
+        PackedSortedList<Integer> fromBoxed = PackedSortedList.ofInts(boxed);
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(fromInts.get(i), ids.get(i));
+            assertEquals(fromBoxed.get(i), ids.get(i));
+        }
+        assertTrue(fromInts.contains(ids.get(5000)));
+    }
+
+    @Test
+    void packsDenseIdentifiers() {
+        int[] ids = new int[1_000_000];
+        Random random = new Random(5);
+        for (int i = 1; i < ids.length; i++)
+            ids[i] = ids[i - 1] + 1 + random.nextInt(16);
+
+        PackedSortedList<Integer> list = PackedSortedList.ofInts(ids);
+
+        assertTrue(list.packedBytes() < ids.length);
+        assertEquals(list.get(ids.length - 1), ids[ids.length - 1]);
+    }
+
+    @Test
+    void unsortedValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PackedSortedList.ofInts(new int[]{1, 3, 2}));
+    }
+
+    @Test
+    void cannotBeChanged() {
+        PackedSortedList<Integer> list = PackedSortedList.ofInts(new int[]{1, 2, 3});
+
+        assertThrows(UnsupportedOperationException.class, () -> list.add(4));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, 4));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        assertThrows(UnsupportedOperationException.class, list::clear);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertEquals(list.size(), 3);
+    }
+}
@@ -0,0 +1,215 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentListTest {
+
+    private static void assertContent(MyList<Integer> list, List<Integer> expected) {
+        assertEquals(list.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(list.get(i), expected.get(i));
+        Iterator<Integer> iterator = list.iterator();
+        for (Integer element : expected)
+            assertEquals(iterator.next(), element);
+        assertFalse(iterator.hasNext());
+    }
+
+    private static PersistentList<Integer> listOf(int from, int to) {
+        PersistentList<Integer> list = new PersistentList<>();
+        for (int i = from; i < to; i++)
+            list.add(i);
+        return list;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 32, 33, 1024, 1056, 32 * 32 * 32 + 1, 100_000})
+    void addAndGet(int size) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            expected.add(i);
+
+        PersistentList<Integer> list = listOf(0, size);
+
+        assertContent(list, expected);
+    }
+
+    @Test
+    void snapshotDoesNotSeeLaterChanges() {
+        PersistentList<Integer> list = listOf(0, 5000);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            expected.add(i);
+
+        PersistentList<Integer> snapshot = list.snapshot();
+        list.set(0, -1);
+        list.set(2500, -1);
+        list.set(4999, -1);
+        list.add(5000);
+        list.remove(list.size() - 1);
+        list.remove(100);
+
+        assertContent(snapshot, expected);
+        assertEquals(list.get(0), -1);
+        assertEquals(list.get(2499), -1);
+        assertEquals(list.get(100), 101);
+        assertEquals(list.size(), 4999);
+    }
+
+    @Test
+    void snapshotCannotBeChanged() {
+        PersistentList<Integer> snapshot = listOf(0, 10).snapshot();
+
+        assertTrue(snapshot.isSnapshot());
+        assertSame(snapshot.snapshot(), snapshot);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+        assertEquals(snapshot.size(), 10);
+    }
+
+    @Test
+    void mutableCopyIsIndependent() {
+        PersistentList<Integer> list = listOf(0, 100);
+
+        PersistentList<Integer> copy = list.mutableCopy();
+        copy.set(50, -1);
+        copy.add(100);
+        list.set(10, -2);
+
+        assertFalse(copy.isSnapshot());
+        assertEquals(list.get(50), 50);
+        assertEquals(list.size(), 100);
+        assertEquals(copy.get(10), 10);
+        assertEquals(copy.get(50), -1);
+        assertEquals(copy.size(), 101);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 31, 32, 33, 1000, 1024, 40_000})
+    void addAllJoinsTrees(int size) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 3 * size; i++)
+            expected.add(i);
+        PersistentList<Integer> first = listOf(0, size);
+        PersistentList<Integer> second = listOf(size, 2 * size);
+        PersistentList<Integer> third = listOf(2 * size, 3 * size);
+
+        first.addAll(second);
+        first.addAll(third);
+        second.add(-1);
+
+        assertContent(first, expected);
+        assertEquals(second.size(), size + 1);
+    }
+
+    @Test
+    void addAllItself() {
+        PersistentList<Integer> list = listOf(0, 3000);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++)
+            expected.add(i);
+        expected.addAll(new ArrayList<>(expected));
+
+        list.addAll(list);
+
+        assertContent(list, expected);
+    }
+
+    @Test
+    void removeLastDownToEmpty() {
+        PersistentList<Integer> list = listOf(0, 2000);
+        PersistentList<Integer> snapshot = list.snapshot();
+
+        for (int i = 1999; i >= 0; i--)
+            assertEquals(list.remove(i), i);
+        list.add(7);
+
+        assertEquals(list.size(), 1);
+        assertEquals(list.get(0), 7);
+        assertEquals(snapshot.size(), 2000);
+        assertEquals(snapshot.get(1999), 1999);
+    }
+
+    @Test
+    void insertAndRemoveInTheMiddle() {
+        PersistentList<Integer> list = listOf(0, 100);
+
+        list.add(10, -1);
+        list.addAll(20, new Integer[]{-2, -3});
+        list.removeRange(0, 5);
+        boolean removed = list.removeIf(element -> element < 0);
+
+        assertTrue(removed);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 5; i < 100; i++)
+            expected.add(i);
+        assertContent(list, expected);
+    }
+
+    @Test
+    void indexesAreChecked() {
+        PersistentList<Integer> list = listOf(0, 10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(11, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeRange(5, 11));
+        assertThrows(NoSuchElementException.class, () -> {
+            Iterator<Integer> iterator = new PersistentList<Integer>().iterator();
+            iterator.next();
+        });
+    }
+
+    @Test
+    void randomOperationsMatchAnArrayList() {
+        Random random = new Random(42);
+        PersistentList<Integer> list = new PersistentList<>();
+        List<Integer> expected = new ArrayList<>();
+        List<PersistentList<Integer>> snapshots = new ArrayList<>();
+        List<List<Integer>> snapshotContents = new ArrayList<>();
+        int next = 0;
+
+        for (int step = 0; step < 3000; step++) {
+            int operation = random.nextInt(100);
+            if (operation < 50) {
+                list.add(next);
+                expected.add(next++);
+            } else if (operation < 70 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                list.set(index, -next);
+                expected.set(index, -next++);
+            } else if (operation < 80 && !expected.isEmpty()) {
+                assertEquals(list.remove(expected.size() - 1), expected.remove(expected.size() - 1));
+            } else if (operation < 82 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(list.remove(index), expected.remove(index));
+            } else if (operation < 92) {
+                PersistentList<Integer> other = new PersistentList<>();
+                int length = random.nextInt(4) == 0 ? random.nextInt(3000) : random.nextInt(70);
+                for (int i = 0; i < length; i++) {
+                    other.add(next);
+                    expected.add(next++);
+                }
+                list.addAll(other);
+            } else {
+                snapshots.add(list.snapshot());
+                snapshotContents.add(new ArrayList<>(expected));
+            }
+        }
+
+        assertContent(list, expected);
+        for (int i = 0; i < snapshots.size(); i++)
+            assertContent(snapshots.get(i), snapshotContents.get(i));
+    }
+}
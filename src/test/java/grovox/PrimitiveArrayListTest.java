@@ -0,0 +1,97 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveArrayListTest {
+
+    @Test
+    void intAddAndGet() {
+        MyIntList data = new MyIntArrayList();
+
+        for (int i = 0; i < 100; i++)
+            data.add(i);
+
+        assertEquals(data.size(), 100);
+        for (int i = 0; i < 100; i++)
+            assertEquals(data.get(i), i);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2, 5})
+    void intAddByIndex(int index) {
+        MyIntList data = new MyIntArrayList();
+        data.addAll(new int[]{0, 1, 2, 3, 4});
+
+        data.add(index, 123);
+
+        assertEquals(data.get(index), 123);
+        assertEquals(data.size(), 6);
+        for (int i = 0; i < index; i++)
+            assertEquals(data.get(i), i);
+        for (int i = index + 1; i < data.size(); i++)
+            assertEquals(data.get(i), i - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void intRemove(int index) {
+        MyIntList data = new MyIntArrayList();
+        int[] addData = new int[]{1, 2, 3};
+        data.addAll(addData);
+
+        int removeElement = data.remove(index);
+
+        assertEquals(removeElement, addData[index]);
+        assertEquals(data.size(), 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 3})
+    void intGetByNotExistingIndex(int index) {
+        MyIntList data = new MyIntArrayList();
+        data.addAll(new int[]{1, 2, 3});
+
+        assertThrows(IndexOutOfBoundsException.class, () -> data.get(index));
+    }
+
+    @Test
+    void intSetAndClear() {
+        MyIntList data = new MyIntArrayList();
+        data.addAll(new int[]{1, 2, 3});
+
+        int oldElement = data.set(1, 123);
+
+        assertEquals(oldElement, 2);
+        assertEquals(data.get(1), 123);
+        data.clear();
+        assertTrue(data.isEmpty());
+    }
+
+    @Test
+    void longAddRemoveSet() {
+        MyLongList data = new MyLongArrayList();
+        data.addAll(new long[]{Long.MAX_VALUE, 2L, 3L});
+        data.add(0, Long.MIN_VALUE);
+
+        assertEquals(data.remove(1), Long.MAX_VALUE);
+        assertEquals(data.set(0, 1L), Long.MIN_VALUE);
+        assertEquals(data.get(0), 1L);
+        assertEquals(data.size(), 3);
+    }
+
+    @Test
+    void doubleAddRemoveSet() {
+        MyDoubleList data = new MyDoubleArrayList();
+        for (int i = 0; i < 20; i++)
+            data.add(i / 2.0);
+
+        assertEquals(data.remove(0), 0.0);
+        assertEquals(data.set(0, -1.5), 0.5);
+        assertEquals(data.get(0), -1.5);
+        assertEquals(data.size(), 19);
+    }
+}
@@ -0,0 +1,91 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuickSelectTest {
+
+    private static final Comparator<Integer> NATURAL = Comparator.naturalOrder();
+
+    private static Object[] pattern(String name, int size){
+        Random random = new Random(size);
+        Object[] data = new Object[size];
+        for (int i = 0; i < size; i++) {
+            switch (name) {
+                case "random": data[i] = random.nextInt(); break;
+                case "fewValues": data[i] = random.nextInt(4); break;
+                case "ascending": data[i] = i; break;
+                case "descending": data[i] = size - i; break;
+                case "organPipe": data[i] = Math.min(i, size - i); break;
+                default: throw new IllegalArgumentException(name);
+            }
+        }
+        return data;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "fewValues", "ascending", "descending", "organPipe"})
+    void select(String name) {
+        for (int size : new int[]{1, 2, 17, 1000, 100_000}) {
+            Object[] expected = pattern(name, size);
+            Arrays.sort(expected);
+            for (int k : new int[]{0, size / 3, size / 2, size - 1}) {
+                Object[] data = pattern(name, size);
+
+                QuickSelect.select(data, 0, size, k, NATURAL);
+
+                assertEquals(data[k], expected[k], name + " " + size + " " + k);
+                for (int i = 0; i < k; i++)
+                    assertTrue((Integer) data[i] <= (Integer) data[k]);
+                for (int i = k + 1; i < size; i++)
+                    assertTrue((Integer) data[i] >= (Integer) data[k]);
+            }
+        }
+    }
+
+    @Test
+    void selectThroughSortable() {
+        Object[] data = pattern("random", 10_000);
+        Object[] expected = data.clone();
+        Arrays.sort(expected);
+        IntroSort.Sortable sortable = new IntroSort.Sortable() {
+            @Override
+            public int compare(int i, int j) {
+                return ((Integer) data[i]).compareTo((Integer) data[j]);
+            }
+
+            @Override
+            public void swap(int i, int j) {
+                Object temp = data[i];
+                data[i] = data[j];
+                data[j] = temp;
+            }
+        };
+
+        QuickSelect.select(sortable, 0, data.length, 1234);
+
+        assertEquals(data[1234], expected[1234]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 999, 1000, 1001, 5000})
+    void topK(int k) {
+        List<Integer> input = IntStream.range(0, 1000).map(i -> (i * 7919) % 1000).boxed().collect(Collectors.toList());
+
+        MyArrayList<Integer> top = QuickSelect.topK(input.iterator(), k, NATURAL);
+
+        assertEquals(top.size(), Math.min(k, 1000));
+        for (int i = 0; i < top.size(); i++)
+            assertEquals(top.get(i), i);
+    }
+}
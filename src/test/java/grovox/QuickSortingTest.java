@@ -4,7 +4,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,6 +80,413 @@ class QuickSortTest {
         assertEquals(result, true);
     }
 
+    @Test
+    void runSortingWithComparatorThroughInterface() {
+        MyList<Student> view = new ListView<>(data);
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++)
+            view.add(new Student(Integer.toString(random.nextInt(500))));
+
+        boolean result = QuickSort.runSorting(view, comparator);
+
+        for (int i = 1; i < view.size(); i++){
+            assertTrue(comparator.compare(view.get(i - 1), view.get(i)) <= 0);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingWithComparableThroughInterface() {
+        MyList<People> view = new ListView<>(dataWithComparable);
+        People[] peoples = new People[]{new People("D"), new People("B"), new People("A"), new People("E"), new People("C")};
+        String[] sortPeopleName = new String[]{"A", "B", "C", "D", "E"};
+        view.addAll(peoples);
+
+        boolean result = QuickSort.runSorting(view);
+
+        for (int i = 0; i < view.size(); i++){
+            assertEquals(view.get(i).name, sortPeopleName[i]);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingWithIntDataThroughInterface() {
+        MyIntList ints = new IntListView(new MyIntArrayList());
+        ints.addAll(new int[]{4, 1, 3, 1, 2});
+        int[] sortInts = new int[]{1, 1, 2, 3, 4};
+
+        boolean result = QuickSort.runSorting(ints);
+
+        for (int i = 0; i < ints.size(); i++){
+            assertEquals(ints.get(i), sortInts[i]);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runParallelSortingWithComparator() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++)
+            data.add(new Student(Integer.toString(random.nextInt(100_000))));
+        int size = data.size();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        boolean result = QuickSort.runParallelSorting(data, comparator, pool, 100);
+
+        pool.shutdown();
+        for (int i = 1; i < data.size(); i++){
+            assertTrue(comparator.compare(data.get(i - 1), data.get(i)) <= 0);
+        }
+        assertEquals(size, data.size());
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runParallelSortingWithComparable() {
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++)
+            dataWithComparable.add(new People(Integer.toString(random.nextInt(1000))));
+
+        boolean result = QuickSort.runParallelSorting(dataWithComparable);
+
+        for (int i = 1; i < dataWithComparable.size(); i++){
+            assertTrue(dataWithComparable.get(i - 1).compareTo(dataWithComparable.get(i)) <= 0);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runParallelSortingWithEmptyDataAndWrongThreshold() {
+
+        assertEquals(QuickSort.runParallelSorting(data, comparator), false);
+        assertThrows(IllegalArgumentException.class, () -> {
+            QuickSort.runParallelSorting(data, comparator, ForkJoinPool.commonPool(), 0);
+        });
+    }
+
+    @Test
+    void runSortingWithIntData() {
+        MyIntList ints = new MyIntArrayList();
+        ints.addAll(new int[]{5, -3, 9, 0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 1});
+        int[] sortInts = new int[]{Integer.MIN_VALUE, -3, 0, 1, 5, 5, 9, Integer.MAX_VALUE};
+
+        boolean result = QuickSort.runSorting(ints);
+
+        for (int i = 0; i < ints.size(); i++){
+            assertEquals(ints.get(i), sortInts[i]);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingWithLongData() {
+        MyLongList longs = new MyLongArrayList();
+        longs.addAll(new long[]{3L, Long.MAX_VALUE, -7L, Long.MIN_VALUE, 0L});
+        long[] sortLongs = new long[]{Long.MIN_VALUE, -7L, 0L, 3L, Long.MAX_VALUE};
+
+        boolean result = QuickSort.runSorting(longs);
+
+        for (int i = 0; i < longs.size(); i++){
+            assertEquals(longs.get(i), sortLongs[i]);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingWithDoubleData() {
+        MyDoubleList doubles = new MyDoubleArrayList();
+        doubles.addAll(new double[]{Double.NaN, 2.5, 0.0, -0.0, Double.NEGATIVE_INFINITY, -1.0});
+        double[] sortDoubles = new double[]{Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 2.5, Double.NaN};
+
+        boolean result = QuickSort.runSorting(doubles);
+
+        for (int i = 0; i < doubles.size(); i++){
+            assertEquals(doubles.get(i), sortDoubles[i]);
+        }
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingWithEmptyPrimitiveData() {
+
+        assertEquals(QuickSort.runSorting(new MyIntArrayList()), false);
+        assertEquals(QuickSort.runSorting(new MyLongArrayList()), false);
+        assertEquals(QuickSort.runSorting(new MyDoubleArrayList()), false);
+    }
+
+    @Test
+    void select() {
+        MyList<Integer> list = new MyArrayList<>();
+        for (int i = 0; i < 1001; i++)
+            list.add((i * 389) % 1001);
+
+        Integer median = QuickSort.select(list, 500);
+
+        assertEquals(median, 500);
+        assertEquals(list.get(500), 500);
+        assertEquals(list.size(), 1001);
+        assertThrows(IndexOutOfBoundsException.class, () -> QuickSort.select(list, 1001));
+    }
+
+    @Test
+    void selectThroughInterface() {
+        MyList<Student> list = new ListView<>(data);
+        for (char name = 'z'; name >= 'a'; name--)
+            list.add(new Student(String.valueOf(name)));
+
+        Student student = QuickSort.select(list, 2, comparator);
+
+        assertEquals(student.name, "c");
+    }
+
+    @Test
+    void partialSort() {
+        MyList<Integer> list = new MyArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++)
+            list.add(random.nextInt(1_000_000));
+        Integer[] expected = new Integer[list.size()];
+        for (int i = 0; i < expected.length; i++)
+            expected[i] = list.get(i);
+        Arrays.sort(expected);
+
+        boolean result = QuickSort.partialSort(list, 100);
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(list.get(i), expected[i]);
+        for (int i = 100; i < list.size(); i++)
+            assertTrue(list.get(i) >= expected[99]);
+        assertEquals(result, true);
+        assertEquals(QuickSort.partialSort(list, 0), false);
+        assertThrows(IndexOutOfBoundsException.class, () -> QuickSort.partialSort(list, 10_001));
+    }
+
+    @Test
+    void partialSortThroughInterface() {
+        MyList<Student> list = new ListView<>(data);
+        for (char name = 'z'; name >= 'a'; name--)
+            list.add(new Student(String.valueOf(name)));
+
+        QuickSort.partialSort(list, 3, comparator);
+
+        assertEquals(list.get(0).name, "a");
+        assertEquals(list.get(1).name, "b");
+        assertEquals(list.get(2).name, "c");
+    }
+
+    @Test
+    void topK() {
+        MyList<Integer> list = new MyArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            list.add((i * 389) % 1000);
+
+        MyArrayList<Integer> leaders = QuickSort.topK(list, 3, Comparator.<Integer>reverseOrder());
+
+        assertEquals(leaders.size(), 3);
+        assertEquals(leaders.get(0), 999);
+        assertEquals(leaders.get(1), 998);
+        assertEquals(leaders.get(2), 997);
+        assertEquals(list.get(0), 0);
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.topK(list, -1, Comparator.<Integer>naturalOrder()));
+    }
+
+    @Test
+    void runStableSortingWithComparator() {
+        String[] names = {"B2", "A1", "B1", "A2", "C1", "A3", "B3"};
+        for (String name : names)
+            data.add(new Student(name));
+
+        boolean result = QuickSort.runStableSorting(data, (first, second) -> first.name.charAt(0) - second.name.charAt(0));
+
+        String[] sortedNames = {"A1", "A2", "A3", "B2", "B1", "B3", "C1"};
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(data.get(i).name, sortedNames[i]);
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runStableSortingWithComparableThroughInterface() {
+        MyList<People> list = new ListView<>(dataWithComparable);
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++)
+            list.add(new People(String.valueOf(i < 900 ? 1000 + i : 1000 + random.nextInt(900))));
+
+        boolean result = QuickSort.runStableSorting(list);
+
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1).compareTo(list.get(i)) <= 0);
+        assertEquals(list.size(), 1000);
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runStableSortingWithEmptyData() {
+
+        assertEquals(QuickSort.runStableSorting(data, comparator), false);
+        assertEquals(QuickSort.runStableSorting(dataWithComparable), false);
+    }
+
+    @Test
+    void runSortingByIntKey() {
+        Student[] students = new Student[200];
+        for (int i = 0; i < students.length; i++)
+            students[i] = new Student(String.valueOf((char) ('z' - i % 26)) + i);
+        data.addAll(students);
+
+        boolean result = QuickSort.runSortingByIntKey(data, student -> student.name.charAt(0));
+
+        for (int i = 1; i < data.size(); i++) {
+            Student previous = data.get(i - 1);
+            Student current = data.get(i);
+            assertTrue(previous.name.charAt(0) <= current.name.charAt(0));
+            if (previous.name.charAt(0) == current.name.charAt(0))
+                assertTrue(Integer.parseInt(previous.name.substring(1)) < Integer.parseInt(current.name.substring(1)));
+        }
+        assertEquals(data.size(), students.length);
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingByLongKeyThroughInterface() {
+        Random random = new Random(7);
+        MyList<Long> list = new ListView<>(new MyArrayList<>());
+        for (int i = 0; i < 1000; i++)
+            list.add(random.nextLong());
+
+        boolean result = QuickSort.runSortingByLongKey(list, value -> value);
+
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1) <= list.get(i));
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingByKeyWithImplicitLambda() {
+        MyList<Student> other = new MyArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add(new Student("s" + (i * 37 % 100)));
+            other.add(new Student("s" + (i * 37 % 100)));
+        }
+
+        boolean byInt = QuickSort.runSortingByIntKey(data, student -> Integer.parseInt(student.name.substring(1)));
+        boolean byLong = QuickSort.runSortingByLongKey(other, student -> Integer.parseInt(student.name.substring(1)));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(data.get(i).name, "s" + i);
+            assertEquals(other.get(i).name, "s" + i);
+        }
+        assertEquals(byInt, true);
+        assertEquals(byLong, true);
+    }
+
+    @Test
+    void runSortingByKeyWithEmptyData() {
+
+        assertEquals(QuickSort.runSortingByIntKey(data, student -> student.name.length()), false);
+        assertEquals(QuickSort.runSortingByLongKey(data, student -> student.name.length()), false);
+    }
+
+    @Test
+    void runSortingByDerivesEveryKeyOnce() {
+        Random random = new Random(11);
+        for (int i = 0; i < 1000; i++)
+            data.add(new Student(" Name" + random.nextInt(500) + " "));
+        int[] calls = new int[1];
+
+        boolean result = QuickSort.runSortingBy(data, (Student student) -> {
+            calls[0]++;
+            return student.name.trim().toLowerCase();
+        });
+
+        for (int i = 1; i < data.size(); i++)
+            assertTrue(data.get(i - 1).name.trim().compareTo(data.get(i).name.trim()) <= 0);
+        assertEquals(calls[0], 1000);
+        assertEquals(data.size(), 1000);
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingByThroughInterface() {
+        MyList<Integer> list = new ListView<>(new MyArrayList<>());
+        Random random = new Random(13);
+        for (int i = 0; i < 1000; i++)
+            list.add(random.nextInt(100_000));
+
+        boolean result = QuickSort.runSortingBy(list, (Integer value) -> Integer.toString(value));
+
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1).toString().compareTo(list.get(i).toString()) <= 0);
+        assertEquals(result, true);
+    }
+
+    @Test
+    void runSortingByWithEmptyData() {
+
+        assertEquals(QuickSort.runSortingBy(data, (Student student) -> student.name), false);
+    }
+
+    @Test
+    void argsortKeepsTheListAndTheOrderOfEqualElements() {
+        String[] names = {"B2", "A1", "B1", "A2", "C1"};
+        for (String name : names)
+            data.add(new Student(name));
+
+        int[] permutation = QuickSort.argsort(data, (first, second) -> first.name.charAt(0) - second.name.charAt(0));
+
+        assertArrayEquals(permutation, new int[]{1, 3, 0, 2, 4});
+        for (int i = 0; i < names.length; i++)
+            assertEquals(data.get(i).name, names[i]);
+    }
+
+    @Test
+    void argsortWithComparableAndEmptyData() {
+
+        assertEquals(QuickSort.argsort(dataWithComparable).length, 0);
+    }
+
+    @Test
+    void applyPermutationCoSortsParallelLists() {
+        Random random = new Random(17);
+        MyList<Integer> ids = new MyArrayList<>();
+        MyList<Integer> scores = new MyArrayList<>();
+        MyList<String> payloads = new ListView<>(new MyArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            int score = random.nextInt(100);
+            ids.add(i);
+            scores.add(score);
+            payloads.add(i + ":" + score);
+        }
+        int[] permutation = QuickSort.argsort(scores);
+        int[] copy = permutation.clone();
+
+        QuickSort.applyPermutation(permutation, ids, scores, payloads);
+
+        assertArrayEquals(permutation, copy);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ids.get(i), copy[i]);
+            assertEquals(payloads.get(i), ids.get(i) + ":" + scores.get(i));
+            if (i > 0)
+                assertTrue(scores.get(i - 1) <= scores.get(i));
+        }
+    }
+
+    @Test
+    void applyPermutationRejectsInvalidPermutations() {
+        MyList<Integer> list = new MyArrayList<>();
+        list.addAll(new Integer[]{10, 20, 30});
+        int[] duplicate = {0, 2, 2};
+        int[] outOfBounds = {0, 1, 3};
+
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.applyPermutation(duplicate, list));
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.applyPermutation(outOfBounds, list));
+        assertThrows(IllegalArgumentException.class, () -> QuickSort.applyPermutation(new int[]{1, 0}, list));
+        assertArrayEquals(duplicate, new int[]{0, 2, 2});
+        assertEquals(list.get(0), 10);
+        assertEquals(list.get(1), 20);
+        assertEquals(list.get(2), 30);
+    }
+
     class People implements Comparable<People>{
         String name;
 
@@ -97,4 +507,44 @@ class QuickSortTest {
             this.name = name;
         }
     }
+
+    /**
+     * A list that is not an array list of this package,
+     * so it is sorted only through the {@link MyList} methods.
+     */
+    static class ListView<E> implements MyList<E> {
+        private final MyList<E> data;
+
+        ListView(MyList<E> data) {
+            this.data = data;
+        }
+
+        public boolean add(E e) { return data.add(e); }
+        public boolean add(int index, E e) { return data.add(index, e); }
+        public boolean addAll(E[] c) { return data.addAll(c); }
+        public E remove(int index) { return data.remove(index); }
+        public void clear() { data.clear(); }
+        public E get(int index) { return data.get(index); }
+        public E set(int index, E e) { return data.set(index, e); }
+        public int size() { return data.size(); }
+        public boolean isEmpty() { return data.isEmpty(); }
+    }
+
+    static class IntListView implements MyIntList {
+        private final MyIntList data;
+
+        IntListView(MyIntList data) {
+            this.data = data;
+        }
+
+        public boolean add(int e) { return data.add(e); }
+        public boolean add(int index, int e) { return data.add(index, e); }
+        public boolean addAll(int[] c) { return data.addAll(c); }
+        public int remove(int index) { return data.remove(index); }
+        public void clear() { data.clear(); }
+        public int get(int index) { return data.get(index); }
+        public int set(int index, int e) { return data.set(index, e); }
+        public int size() { return data.size(); }
+        public boolean isEmpty() { return data.isEmpty(); }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 63, 64, 65, 1000, 100_000};
+
+    /**
+     * Checks that the keys are sorted and that every value has moved with its key,
+     * the values are the original indexes, so equal keys must keep them ascending.
+     */
+    private static void assertSortedAndStable(long[] original, long[] keys, Object[] values, String message){
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(original[(Integer) values[i]], keys[i], message);
+            if (i > 0) {
+                assertTrue(keys[i - 1] <= keys[i], message);
+                if (keys[i - 1] == keys[i])
+                    assertTrue((Integer) values[i - 1] < (Integer) values[i], message);
+            }
+        }
+    }
+
+    private static Object[] indexes(int size){
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++)
+            values[i] = i;
+        return values;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "small", "fewValues", "descending", "negative"})
+    void sortInts(String name) {
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                switch (name) {
+                    case "random": keys[i] = random.nextInt(); break;
+                    case "small": keys[i] = random.nextInt(1000); break;
+                    case "fewValues": keys[i] = random.nextInt(4); break;
+                    case "descending": keys[i] = size - i; break;
+                    case "negative": keys[i] = -random.nextInt(1 << 20); break;
+                    default: throw new IllegalArgumentException(name);
+                }
+            }
+            long[] original = Arrays.stream(keys).asLongStream().toArray();
+            Object[] values = indexes(size);
+
+            RadixSort.sort(keys, values, size);
+
+            assertSortedAndStable(original, Arrays.stream(keys).asLongStream().toArray(), values, name + " " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "timestamps", "fewValues", "extremes"})
+    void sortLongs(String name) {
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                switch (name) {
+                    case "random": keys[i] = random.nextLong(); break;
+                    case "timestamps": keys[i] = 1_700_000_000_000L + random.nextInt(86_400_000); break;
+                    case "fewValues": keys[i] = random.nextInt(4) - 2; break;
+                    case "extremes": keys[i] = random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE; break;
+                    default: throw new IllegalArgumentException(name);
+                }
+            }
+            long[] original = keys.clone();
+            Object[] values = indexes(size);
+
+            RadixSort.sort(keys, values, size);
+
+            assertSortedAndStable(original, keys, values, name + " " + size);
+        }
+    }
+
+    @Test
+    void sortOnlyTheGivenLength() {
+        int[] keys = new int[200];
+        Object[] values = new Object[250];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys.length - i;
+            values[i] = keys[i];
+        }
+        Arrays.fill(values, 200, 250, "tail");
+
+        RadixSort.sort(keys, values, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(keys[i], 101 + i);
+            assertEquals(values[i], keys[i]);
+        }
+        assertEquals(keys[100], 100);
+        assertEquals(values[200], "tail");
+    }
+}
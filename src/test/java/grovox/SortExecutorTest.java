@@ -0,0 +1,215 @@
+package grovox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortExecutorTest {
+
+    private SortExecutor executor;
+
+    @BeforeEach
+    void prepareExecutor(){
+        executor = new SortExecutor(10_000, 100_000, 2);
+    }
+
+    @AfterEach
+    void closeExecutor(){
+        executor.close();
+    }
+
+    private static MyList<Integer> randomList(int size, long seed){
+        Random random = new Random(seed);
+        MyList<Integer> list = new MyArrayList<>();
+        for (int i = 0; i < size; i++)
+            list.add(random.nextInt());
+        return list;
+    }
+
+    private static void assertSorted(MyList<Integer> list){
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1) <= list.get(i));
+    }
+
+    /**
+     * A comparator that waits until it is released, to keep a job running.
+     */
+    private static Comparator<Integer> blocking(CountDownLatch started, CountDownLatch release){
+        return (first, second) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return first.compareTo(second);
+        };
+    }
+
+    @Test
+    void sortManyJobs() throws Exception {
+        List<MyList<Integer>> lists = new ArrayList<>();
+        List<CompletableFuture<SortJobStats>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            MyList<Integer> list = randomList(i * 50, i);
+            lists.add(list);
+            futures.add(executor.submit(list));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        for (int i = 0; i < lists.size(); i++) {
+            assertSorted(lists.get(i));
+            SortJobStats stats = futures.get(i).get();
+            assertEquals(stats.size(), i * 50);
+            assertEquals(stats.large(), i * 50 >= 10_000);
+            assertTrue(stats.queuedNanos() >= 0);
+            assertEquals(stats.latencyNanos(), stats.queuedNanos() + stats.runNanos());
+        }
+    }
+
+    @Test
+    void largeJob() throws Exception {
+        MyList<Integer> list = randomList(50_000, 1);
+
+        SortJobStats stats = executor.submit(list, Comparator.naturalOrder()).get(30, TimeUnit.SECONDS);
+
+        assertTrue(stats.large());
+        assertSorted(list);
+    }
+
+    @Test
+    void backPressure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SortJobStats> first = executor.trySubmit(randomList(60_000, 2), blocking(started, release));
+        started.await();
+
+        assertThrows(RejectedExecutionException.class,
+                () -> executor.trySubmit(randomList(50_000, 3), Comparator.naturalOrder()));
+        CompletableFuture<SortJobStats> small = executor.trySubmit(randomList(100, 4), Comparator.naturalOrder());
+        release.countDown();
+
+        first.get(30, TimeUnit.SECONDS);
+        small.get(30, TimeUnit.SECONDS);
+        executor.trySubmit(randomList(50_000, 5), Comparator.naturalOrder()).get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cancelRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MyList<Integer> list = randomList(5000, 6);
+        CompletableFuture<SortJobStats> future = executor.submit(list, blocking(started, release));
+        started.await();
+
+        assertTrue(future.cancel(true));
+        release.countDown();
+
+        assertTrue(future.isCancelled());
+        executor.submit(randomList(99_000, 7)).get(30, TimeUnit.SECONDS);
+        assertEquals(list.size(), 5000);
+    }
+
+    @Test
+    void cancelQueuedJobReleasesRoom() throws Exception {
+        try (SortExecutor single = new SortExecutor(10_000, 100_000, 1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch queuedStarted = new CountDownLatch(1);
+            CompletableFuture<SortJobStats> running = single.trySubmit(randomList(50_000, 11), blocking(started, release));
+            started.await();
+            CompletableFuture<SortJobStats> queued = single.trySubmit(randomList(40_000, 12), blocking(queuedStarted, release));
+
+            CompletableFuture<SortJobStats> next;
+            try {
+                assertTrue(queued.cancel(false));
+                next = single.trySubmit(randomList(50_000, 13), Comparator.naturalOrder());
+            } finally {
+                release.countDown();
+            }
+
+            running.get(30, TimeUnit.SECONDS);
+            next.get(30, TimeUnit.SECONDS);
+            assertEquals(queuedStarted.getCount(), 1);
+        }
+    }
+
+    @Test
+    void interruptedCloseCancelsUnfinishedJobs() throws Exception {
+        SortExecutor single = new SortExecutor(10_000, 100_000, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SortJobStats> running = single.trySubmit(randomList(50_000, 14), blocking(started, release));
+        started.await();
+        CompletableFuture<SortJobStats> queued = single.trySubmit(randomList(40_000, 15), Comparator.naturalOrder());
+
+        Thread.currentThread().interrupt();
+        single.close();
+        boolean interrupted = Thread.interrupted();
+        release.countDown();
+
+        assertTrue(interrupted);
+        assertTrue(queued.isCancelled());
+        assertTrue(running.isCancelled());
+        assertThrows(CancellationException.class, () -> queued.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingComparator() {
+        MyList<Integer> list = randomList(100, 8);
+
+        CompletableFuture<SortJobStats> future = executor.trySubmit(list, (first, second) -> {
+            throw new IllegalStateException("broken");
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void latencyIsReportedToMetrics() throws Exception {
+        List<SortJobStats> reported = new ArrayList<>();
+        Metrics.setListener(new MetricsListener() {
+            @Override
+            public synchronized void onSortJob(SortJobStats stats) {
+                reported.add(stats);
+            }
+        });
+        try {
+            SortJobStats stats = executor.submit(randomList(1000, 9)).get(30, TimeUnit.SECONDS);
+
+            assertEquals(reported.size(), 1);
+            assertEquals(reported.get(0), stats);
+        } finally {
+            Metrics.setListener(null);
+        }
+    }
+
+    @Test
+    void closedExecutorRejectsJobs() {
+        executor.close();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(randomList(10, 10)));
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SortExecutor(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SortExecutor(10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SortExecutor(10, 10, 0));
+    }
+}
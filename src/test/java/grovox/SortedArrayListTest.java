@@ -0,0 +1,158 @@
+package grovox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedArrayListTest {
+
+    private SortedArrayList<Integer> data;
+
+    @BeforeEach
+    void prepareData(){
+        data = new SortedArrayList<>(Comparator.naturalOrder());
+    }
+
+    private static void assertSorted(MyList<Integer> list){
+        for (int i = 1; i < list.size(); i++)
+            assertTrue(list.get(i - 1) <= list.get(i));
+    }
+
+    @Test
+    void add() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++)
+            data.add(random.nextInt(100));
+
+        assertEquals(data.size(), 1000);
+        assertSorted(data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000, 10_000})
+    void addAllMergesBatches(int batchSize) {
+        Random random = new Random(batchSize);
+        List<Integer> expected = new ArrayList<>();
+        for (int batch = 0; batch < 5; batch++) {
+            Integer[] elements = new Integer[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                elements[i] = random.nextInt(1000);
+                expected.add(elements[i]);
+            }
+            Integer[] copy = elements.clone();
+
+            data.addAll(elements);
+
+            assertArrayEquals(elements, copy);
+        }
+
+        Collections.sort(expected);
+        assertEquals(data.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(data.get(i), expected.get(i));
+    }
+
+    @Test
+    void addAllBeforeAndAfterStoredElements() {
+        data.addAll(new Integer[]{5, 6, 7});
+
+        data.addAll(new Integer[]{9, 1, 8, 2});
+        data.addAll(data);
+
+        assertEquals(data.size(), 14);
+        assertSorted(data);
+        assertEquals(data.get(0), 1);
+        assertEquals(data.get(13), 9);
+    }
+
+    @Test
+    void equalElementsKeepTheOrderOfAdding() {
+        SortedArrayList<String> list = new SortedArrayList<>(Comparator.comparing(name -> name.charAt(0)));
+        list.add("b1");
+        list.add("a1");
+        list.addAll(new String[]{"b2", "a2"});
+        list.add("b3");
+        MyList<String> batch = new MyArrayList<>();
+        batch.addAll(new String[]{"a3", "b4"});
+        list.addAll(batch);
+
+        String[] expected = {"a1", "a2", "a3", "b1", "b2", "b3", "b4"};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(list.get(i), expected[i]);
+    }
+
+    @Test
+    void search() {
+        data.addAll(new Integer[]{1, 3, 3, 3, 5, 7});
+
+        assertEquals(data.indexOf(3), 1);
+        assertEquals(data.indexOf(4), -1);
+        assertEquals(data.indexOf(8), -1);
+        assertTrue(data.contains(7));
+        assertFalse(data.contains(0));
+        assertEquals(data.lowerBound(3), 1);
+        assertEquals(data.upperBound(3), 4);
+        assertEquals(data.lowerBound(0), 0);
+        assertEquals(data.upperBound(7), 6);
+    }
+
+    @Test
+    void range() {
+        for (int i = 0; i < 100; i++)
+            data.add(i * 2);
+
+        MyArrayList<Integer> range = data.range(10, 21);
+
+        assertEquals(range.size(), 6);
+        for (int i = 0; i < range.size(); i++)
+            assertEquals(range.get(i), 10 + i * 2);
+        assertTrue(data.range(21, 10).isEmpty());
+        assertTrue(data.range(500, 600).isEmpty());
+    }
+
+    @Test
+    void remove() {
+        data.addAll(new Integer[]{4, 1, 3, 2, 5});
+
+        assertEquals(data.remove(0), 1);
+        assertTrue(data.removeElement(4));
+        assertFalse(data.removeElement(4));
+        data.removeIf(element -> element == 5);
+
+        assertEquals(data.size(), 2);
+        assertEquals(data.get(0), 2);
+        assertEquals(data.get(1), 3);
+        data.clear();
+        assertTrue(data.isEmpty());
+    }
+
+    @Test
+    void positionalChangesAreNotSupported() {
+        data.add(1);
+
+        assertThrows(UnsupportedOperationException.class, () -> data.add(0, 2));
+        assertThrows(UnsupportedOperationException.class, () -> data.set(0, 2));
+        assertThrows(UnsupportedOperationException.class, () -> data.addAll(0, new Integer[]{2}));
+    }
+
+    @Test
+    void iterate() {
+        data.addAll(new Integer[]{3, 1, 2});
+
+        List<Integer> elements = new ArrayList<>();
+        for (Integer element : data)
+            elements.add(element);
+
+        assertEquals(elements, List.of(1, 2, 3));
+        assertEquals(data.stream().mapToInt(Integer::intValue).sum(), 6);
+    }
+}
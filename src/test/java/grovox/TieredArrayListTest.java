@@ -0,0 +1,111 @@
+package grovox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredArrayListTest {
+
+    private MyList<Integer> data;
+
+    @BeforeEach
+    void prepareData(){
+        data = new TieredArrayList<>();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 63, 64, 65, 200})
+    void addByIndex(int index) {
+        for (int i = 0; i < 200; i++)
+            data.add(i);
+
+        data.add(index, -1);
+
+        assertEquals(data.size(), 201);
+        for (int i = 0; i < 201; i++)
+            assertEquals(data.get(i), i < index ? i : i == index ? -1 : i - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 63, 64, 127, 128, 199})
+    void remove(int index) {
+        for (int i = 0; i < 200; i++)
+            data.add(i);
+
+        int removeElement = data.remove(index);
+
+        assertEquals(removeElement, index);
+        assertEquals(data.size(), 199);
+        for (int i = 0; i < 199; i++)
+            assertEquals(data.get(i), i < index ? i : i + 1);
+    }
+
+    @Test
+    void sameAsArrayList() {
+        Random random = new Random(13);
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 60_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 4 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, step);
+                data.add(index, step);
+            } else if (operation < 6) {
+                expected.add(step);
+                data.add(step);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), data.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, -step), data.set(index, -step));
+            }
+        }
+
+        assertEquals(expected.size(), data.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), data.get(i));
+    }
+
+    @Test
+    void growAndShrink() {
+        for (int i = 0; i < 100_000; i++)
+            data.add(0, i);
+
+        for (int i = 0; i < 100_000; i++)
+            assertEquals(data.get(i), 99_999 - i);
+        while (!data.isEmpty())
+            data.remove(data.size() / 2);
+        data.add(5);
+        assertEquals(data.get(0), 5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 3})
+    void getByNotExistingIndex(int index) {
+        data.addAll(new Integer[]{1, 2, 3});
+
+        assertThrows(IndexOutOfBoundsException.class, () -> data.get(index));
+        assertThrows(IndexOutOfBoundsException.class, () -> data.remove(index));
+    }
+
+    @Test
+    void clearAndSort() {
+        data.addAll(new Integer[]{3, 1, 2});
+        data.clear();
+        assertTrue(data.isEmpty());
+        data.addAll(new Integer[]{5, 4, 6});
+
+        QuickSort.runSorting(data);
+
+        assertEquals(data.get(0), 4);
+        assertEquals(data.get(2), 6);
+    }
+}
@@ -0,0 +1,147 @@
+package grovox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorSortTest {
+
+    private static final int[] SIZES = {0, 1, 15, 4095, 4096, 4097, 10_000, 100_000};
+
+    private static double value(String name, Random random, int i, int size){
+        switch (name) {
+            case "random": return random.nextDouble() * 2 - 1;
+            case "skewed": return Math.pow(random.nextDouble(), 8);
+            case "fewValues": return random.nextInt(4);
+            case "ascending": return i;
+            case "descending": return size - i;
+            case "allEqual": return 7;
+            default: throw new IllegalArgumentException(name);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "skewed", "fewValues", "ascending", "descending", "allEqual"})
+    void sortInts(String name) {
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            int[] data = new int[size];
+            for (int i = 0; i < size; i++)
+                data[i] = (int) (value(name, random, i, size) * Integer.MAX_VALUE);
+            int[] expected = data.clone();
+            Arrays.sort(expected);
+
+            VectorSort.sort(data, 0, size);
+
+            assertArrayEquals(expected, data, name + " " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "skewed", "fewValues", "ascending", "descending", "allEqual"})
+    void sortLongs(String name) {
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            long[] data = new long[size];
+            for (int i = 0; i < size; i++)
+                data[i] = (long) (value(name, random, i, size) * Long.MAX_VALUE);
+            long[] expected = data.clone();
+            Arrays.sort(expected);
+
+            VectorSort.sort(data, 0, size);
+
+            assertArrayEquals(expected, data, name + " " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"random", "skewed", "fewValues", "ascending", "descending", "allEqual"})
+    void sortDoubles(String name) {
+        for (int size : SIZES) {
+            Random random = new Random(size);
+            double[] data = new double[size];
+            for (int i = 0; i < size; i++)
+                data[i] = value(name, random, i, size);
+            double[] expected = data.clone();
+            Arrays.sort(expected);
+
+            VectorSort.sort(data, 0, size);
+
+            assertArrayEquals(expected, data, name + " " + size);
+        }
+    }
+
+    @Test
+    void sortDoublesWithZerosAndNaN() {
+        Random random = new Random(42);
+        double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -1.0, 1.0};
+        double[] data = new double[20_000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = specials[random.nextInt(specials.length)];
+        double[] expected = data.clone();
+        Arrays.sort(expected);
+
+        VectorSort.sort(data, 0, data.length);
+
+        assertArrayEquals(expected, data);
+        for (int i = 0; i < data.length; i++)
+            assertEquals(Double.doubleToRawLongBits(data[i]), Double.doubleToRawLongBits(expected[i]));
+    }
+
+    @Test
+    void sortRangeLeavesTheRestAlone() {
+        Random random = new Random(7);
+        int[] data = random.ints(20_000).toArray();
+        int[] expected = data.clone();
+        Arrays.sort(expected, 1000, 19_000);
+
+        VectorSort.sort(data, 1000, 19_000);
+
+        assertArrayEquals(expected, data);
+    }
+
+    @Test
+    void sortExtremeValues() {
+        Random random = new Random(3);
+        long[] data = new long[10_000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = random.nextBoolean() ? Long.MIN_VALUE : random.nextBoolean() ? Long.MAX_VALUE : random.nextLong();
+        long[] expected = data.clone();
+        Arrays.sort(expected);
+
+        VectorSort.sort(data, 0, data.length);
+
+        assertArrayEquals(expected, data);
+    }
+
+    @Test
+    void sortSawtooth() {
+        int[] data = new int[1 << 16];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (i % 2 == 0) ? i : data.length - i;
+        int[] expected = data.clone();
+        Arrays.sort(expected);
+
+        VectorSort.sort(data, 0, data.length);
+
+        assertArrayEquals(expected, data);
+    }
+
+    @Test
+    void runSortingWithTheModule() {
+        MyIntArrayList data = new MyIntArrayList();
+        data.addAll(new Random(5).ints(50_000).toArray());
+
+        boolean sorted = QuickSort.runSorting(data);
+
+        assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(sorted);
+        for (int i = 1; i < data.size(); i++)
+            assertTrue(data.get(i - 1) <= data.get(i));
+    }
+}
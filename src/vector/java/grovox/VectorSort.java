@@ -0,0 +1,488 @@
+package grovox;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The sorting engine for arrays of primitives that splits the ranges with the
+ * Vector API of the {@code jdk.incubator.vector} module. A range is split around
+ * a reference value one vector at a time: the lanes are compared with the value at once,
+ * the resulting mask picks a shuffle that packs the smaller lanes to the low end and
+ * the others to the high end, and the vector is written to both ends of a buffer,
+ * so the splitting has no branch that depends on the data. The buffer is then copied
+ * back into the range. Ranges that get too deep or too small are left to {@link IntroSort}.
+ * <p>
+ * The class may only be used if the module has been added to the runtime,
+ * {@code QuickSort} checks it before the class is initialized and sorts with
+ * {@link IntroSort} otherwise. It finds the engine by the name of {@link Sorter},
+ * as only this source set is compiled with the module.
+ * Shuffles are looked up by the mask, so only the vectors of 256 bits are used,
+ * which keeps the tables at 256 entries for {@code int} and 16 for {@code long} and {@code double}.
+ *@author Max Artemov
+ */
+final class VectorSort {
+    /**
+     * Ranges shorter than this are sorted by {@link IntroSort}, the buffer does not pay off for them.
+     */
+    static final int VECTOR_SORT_THRESHOLD = 1 << 12;
+    /**
+     * Parts up to this size are sorted by {@link IntroSort}.
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+    /**
+     * Ranges larger than this take the reference value from nine elements instead of three.
+     */
+    private static final int NINTHER_THRESHOLD = 1024;
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_256;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_256;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_256;
+    /**
+     * The shuffle for every mask that moves the lanes of the mask to the low end
+     * in their order and the other lanes to the high end.
+     */
+    private static final VectorShuffle<Integer>[] INT_SHUFFLES = shuffles(INTS);
+    private static final VectorShuffle<Long>[] LONG_SHUFFLES = shuffles(LONGS);
+    private static final VectorShuffle<Double>[] DOUBLE_SHUFFLES = shuffles(DOUBLES);
+    /**
+     * The lanes hold the powers of two, the lanes of a mask picked from them add up to the bits
+     * of the mask. {@code VectorMask.toLong} would do the same, but it boxes the mask on Java 17.
+     */
+    private static final IntVector INT_BITS = IntVector.fromArray(INTS, new int[]{1, 2, 4, 8, 16, 32, 64, 128}, 0);
+    private static final LongVector LONG_BITS = LongVector.fromArray(LONGS, new long[]{1, 2, 4, 8}, 0);
+    private static final DoubleVector DOUBLE_BITS = DoubleVector.fromArray(DOUBLES, new double[]{1, 2, 4, 8}, 0);
+
+    private VectorSort() {
+    }
+
+    /**
+     * Passes the sortings of {@link QuickSort} to the static methods of this class.
+     * Loading it does not initialize {@code VectorSort}, {@code isSupported} does.
+     */
+    static final class Sorter implements PrimitiveSorter {
+        @Override
+        public boolean isSupported() {
+            return VectorSort.isSupported();
+        }
+
+        @Override
+        public void sort(int[] data, int from, int to) {
+            VectorSort.sort(data, from, to);
+        }
+
+        @Override
+        public void sort(long[] data, int from, int to) {
+            VectorSort.sort(data, from, to);
+        }
+
+        @Override
+        public void sort(double[] data, int from, int to) {
+            VectorSort.sort(data, from, to);
+        }
+    }
+
+    /**
+     * @return Whether the hardware has vectors of at least 256 bits, so the vectors are not emulated.
+     */
+    static boolean isSupported(){
+        return IntVector.SPECIES_PREFERRED.vectorBitSize() >= INTS.vectorBitSize();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static <T> VectorShuffle<T>[] shuffles(VectorSpecies<T> species){
+        int lanes = species.length();
+        VectorShuffle<T>[] shuffles = new VectorShuffle[1 << lanes];
+        int[] indexes = new int[lanes];
+        for (int mask = 0; mask < shuffles.length; mask++) {
+            int next = 0;
+            for (int lane = 0; lane < lanes; lane++)
+                if ((mask & (1 << lane)) != 0)
+                    indexes[next++] = lane;
+            for (int lane = 0; lane < lanes; lane++)
+                if ((mask & (1 << lane)) == 0)
+                    indexes[next++] = lane;
+            shuffles[mask] = VectorShuffle.fromArray(species, indexes, 0);
+        }
+        return shuffles;
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(int[] data, int from, int to){
+        if (to - from < VECTOR_SORT_THRESHOLD)
+            IntroSort.sort(data, from, to);
+        else if (!isSorted(data, from, to))
+            sort(data, new int[to - from], from, to, IntroSort.depthLimit(to - from));
+    }
+
+    /**
+     * Tells whether the range is in ascending order already, the splitting would copy it all
+     * on every level, while the scalar sort only compares the elements of a sorted range.
+     */
+    private static boolean isSorted(int[] data, int from, int to){
+        for (int i = from + 1; i < to; i++)
+            if (data[i] < data[i - 1])
+                return false;
+        return true;
+    }
+
+    /**
+     * Sorts the range with the given depth limit. The range is split into the elements
+     * that are less than the reference value and the others, the smaller part is sorted
+     * recursively and the larger one in the next turn of the loop. If nothing is less
+     * than the reference value, it is the smallest one, so the elements equal to it
+     * are split off instead and need no more sorting.
+     * @param data The array that will be sorted.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    private static void sort(int[] data, int[] buffer, int from, int to, int depth){
+        while (to - from > SPLIT_THRESHOLD) {
+            if (depth-- == 0) {
+                IntroSort.sort(data, from, to, 0);
+                return;
+            }
+            int pivot = pivot(data, from, to);
+            int middle = partition(data, buffer, from, to, pivot, false);
+            if (middle == from) {
+                from = partition(data, buffer, from, to, pivot, true);
+            } else if (middle - from < to - middle) {
+                sort(data, buffer, from, middle, depth);
+                from = middle;
+            } else {
+                sort(data, buffer, middle, to, depth);
+                to = middle;
+            }
+        }
+        IntroSort.sort(data, from, to);
+    }
+
+    /**
+     * Moves the elements that are less than the reference value, or not greater than it,
+     * to the beginning of the range and the others to the end.
+     * @param data The array with the range.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param pivot The reference value.
+     * @param orEqual Whether the elements equal to the reference value go to the beginning.
+     * @return The index of the first element of the end part.
+     */
+    private static int partition(int[] data, int[] buffer, int from, int to, int pivot, boolean orEqual){
+        int lanes = INTS.length();
+        int left = 0;
+        int right = to - from;
+        int i = from;
+        for (; to - i >= 2 * lanes; i += lanes) {
+            IntVector vector = IntVector.fromArray(INTS, data, i);
+            VectorMask<Integer> mask = orEqual ? vector.compare(VectorOperators.LE, pivot) : vector.lt(pivot);
+            int bits = IntVector.zero(INTS).blend(INT_BITS, mask).reduceLanes(VectorOperators.ADD);
+            int count = Integer.bitCount(bits);
+            vector = vector.rearrange(INT_SHUFFLES[bits]);
+            vector.intoArray(buffer, left);
+            vector.intoArray(buffer, right - lanes);
+            left += count;
+            right -= lanes - count;
+        }
+        for (; i < to; i++) {
+            int element = data[i];
+            if (element < pivot || orEqual && element == pivot)
+                buffer[left++] = element;
+            else
+                buffer[--right] = element;
+        }
+        System.arraycopy(buffer, 0, data, from, to - from);
+        return from + left;
+    }
+
+    /**
+     * Returns the median of three elements or, for large ranges, the median of three medians.
+     */
+    private static int pivot(int[] data, int from, int to){
+        int length = to - from;
+        int middle = from + (length >>> 1);
+        if (length <= NINTHER_THRESHOLD)
+            return median(data[from], data[middle], data[to - 1]);
+        int step = length >>> 3;
+        return median(median(data[from], data[from + step], data[from + 2 * step]),
+                median(data[middle - step], data[middle], data[middle + step]),
+                median(data[to - 1 - 2 * step], data[to - 1 - step], data[to - 1]));
+    }
+
+    private static int median(int a, int b, int c){
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(long[] data, int from, int to){
+        if (to - from < VECTOR_SORT_THRESHOLD)
+            IntroSort.sort(data, from, to);
+        else if (!isSorted(data, from, to))
+            sort(data, new long[to - from], from, to, IntroSort.depthLimit(to - from));
+    }
+
+    /**
+     * Tells whether the range is in ascending order already, the splitting would copy it all
+     * on every level, while the scalar sort only compares the elements of a sorted range.
+     */
+    private static boolean isSorted(long[] data, int from, int to){
+        for (int i = from + 1; i < to; i++)
+            if (data[i] < data[i - 1])
+                return false;
+        return true;
+    }
+
+    /**
+     * Sorts the range with the given depth limit. The range is split into the elements
+     * that are less than the reference value and the others, the smaller part is sorted
+     * recursively and the larger one in the next turn of the loop. If nothing is less
+     * than the reference value, it is the smallest one, so the elements equal to it
+     * are split off instead and need no more sorting.
+     * @param data The array that will be sorted.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    private static void sort(long[] data, long[] buffer, int from, int to, int depth){
+        while (to - from > SPLIT_THRESHOLD) {
+            if (depth-- == 0) {
+                IntroSort.sort(data, from, to, 0);
+                return;
+            }
+            long pivot = pivot(data, from, to);
+            int middle = partition(data, buffer, from, to, pivot, false);
+            if (middle == from) {
+                from = partition(data, buffer, from, to, pivot, true);
+            } else if (middle - from < to - middle) {
+                sort(data, buffer, from, middle, depth);
+                from = middle;
+            } else {
+                sort(data, buffer, middle, to, depth);
+                to = middle;
+            }
+        }
+        IntroSort.sort(data, from, to);
+    }
+
+    /**
+     * Moves the elements that are less than the reference value, or not greater than it,
+     * to the beginning of the range and the others to the end.
+     * @param data The array with the range.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param pivot The reference value.
+     * @param orEqual Whether the elements equal to the reference value go to the beginning.
+     * @return The index of the first element of the end part.
+     */
+    private static int partition(long[] data, long[] buffer, int from, int to, long pivot, boolean orEqual){
+        int lanes = LONGS.length();
+        int left = 0;
+        int right = to - from;
+        int i = from;
+        for (; to - i >= 2 * lanes; i += lanes) {
+            LongVector vector = LongVector.fromArray(LONGS, data, i);
+            VectorMask<Long> mask = orEqual ? vector.compare(VectorOperators.LE, pivot) : vector.lt(pivot);
+            int bits = (int) LongVector.zero(LONGS).blend(LONG_BITS, mask).reduceLanes(VectorOperators.ADD);
+            int count = Integer.bitCount(bits);
+            vector = vector.rearrange(LONG_SHUFFLES[bits]);
+            vector.intoArray(buffer, left);
+            vector.intoArray(buffer, right - lanes);
+            left += count;
+            right -= lanes - count;
+        }
+        for (; i < to; i++) {
+            long element = data[i];
+            if (element < pivot || orEqual && element == pivot)
+                buffer[left++] = element;
+            else
+                buffer[--right] = element;
+        }
+        System.arraycopy(buffer, 0, data, from, to - from);
+        return from + left;
+    }
+
+    /**
+     * Returns the median of three elements or, for large ranges, the median of three medians.
+     */
+    private static long pivot(long[] data, int from, int to){
+        int length = to - from;
+        int middle = from + (length >>> 1);
+        if (length <= NINTHER_THRESHOLD)
+            return median(data[from], data[middle], data[to - 1]);
+        int step = length >>> 3;
+        return median(median(data[from], data[from + step], data[from + 2 * step]),
+                median(data[middle - step], data[middle], data[middle + step]),
+                median(data[to - 1 - 2 * step], data[to - 1 - step], data[to - 1]));
+    }
+
+    private static long median(long a, long b, long c){
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Sorts the range from {@code from} inclusive to {@code to} exclusive in the order of
+     * {@link Double#compare(double, double)}. The vectors compare the values like {@code <} does,
+     * so {@code NaN} is moved to the end first and {@code -0.0} is put before {@code 0.0} at last.
+     * @param data The array that will be sorted.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     */
+    static void sort(double[] data, int from, int to){
+        if (to - from < VECTOR_SORT_THRESHOLD) {
+            IntroSort.sort(data, from, to);
+            return;
+        }
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            double element = data[i];
+            if (element != element) {
+                data[i] = data[--end];
+                data[end] = element;
+            }
+        }
+        if (!isSorted(data, from, end)) {
+            sort(data, new double[end - from], from, end, IntroSort.depthLimit(end - from));
+            orderZeros(data, from, end);
+        }
+    }
+
+    /**
+     * Tells whether the range without {@code NaN} is in the order of {@link Double#compare(double, double)} already.
+     */
+    private static boolean isSorted(double[] data, int from, int to){
+        for (int i = from + 1; i < to; i++)
+            if (Double.compare(data[i], data[i - 1]) < 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Puts the negative zeros before the positive ones, they are next to each other
+     * in a sorted range without {@code NaN}.
+     */
+    private static void orderZeros(double[] data, int from, int to){
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (data[middle] < 0.0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        int negative = 0;
+        int end = low;
+        for (; end < to && data[end] == 0.0; end++)
+            if (Double.doubleToRawLongBits(data[end]) < 0)
+                negative++;
+        for (int i = low; i < end; i++)
+            data[i] = i < low + negative ? -0.0 : 0.0;
+    }
+
+    /**
+     * Sorts the range with the given depth limit. The range is split into the elements
+     * that are less than the reference value and the others, the smaller part is sorted
+     * recursively and the larger one in the next turn of the loop. If nothing is less
+     * than the reference value, it is the smallest one, so the elements equal to it
+     * are split off instead and need no more sorting.
+     * @param data The array that will be sorted.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element to sort.
+     * @param to The element after the last one to sort.
+     * @param depth How many more times the data may be split before heapsort is used.
+     */
+    private static void sort(double[] data, double[] buffer, int from, int to, int depth){
+        while (to - from > SPLIT_THRESHOLD) {
+            if (depth-- == 0) {
+                IntroSort.sort(data, from, to, 0);
+                return;
+            }
+            double pivot = pivot(data, from, to);
+            int middle = partition(data, buffer, from, to, pivot, false);
+            if (middle == from) {
+                from = partition(data, buffer, from, to, pivot, true);
+            } else if (middle - from < to - middle) {
+                sort(data, buffer, from, middle, depth);
+                from = middle;
+            } else {
+                sort(data, buffer, middle, to, depth);
+                to = middle;
+            }
+        }
+        IntroSort.sort(data, from, to);
+    }
+
+    /**
+     * Moves the elements that are less than the reference value, or not greater than it,
+     * to the beginning of the range and the others to the end.
+     * @param data The array with the range.
+     * @param buffer The buffer for the splitting, at least as long as the range.
+     * @param from The first element of the range.
+     * @param to The element after the last one of the range.
+     * @param pivot The reference value.
+     * @param orEqual Whether the elements equal to the reference value go to the beginning.
+     * @return The index of the first element of the end part.
+     */
+    private static int partition(double[] data, double[] buffer, int from, int to, double pivot, boolean orEqual){
+        int lanes = DOUBLES.length();
+        int left = 0;
+        int right = to - from;
+        int i = from;
+        for (; to - i >= 2 * lanes; i += lanes) {
+            DoubleVector vector = DoubleVector.fromArray(DOUBLES, data, i);
+            VectorMask<Double> mask = orEqual ? vector.compare(VectorOperators.LE, pivot) : vector.lt(pivot);
+            int bits = (int) DoubleVector.zero(DOUBLES).blend(DOUBLE_BITS, mask).reduceLanes(VectorOperators.ADD);
+            int count = Integer.bitCount(bits);
+            vector = vector.rearrange(DOUBLE_SHUFFLES[bits]);
+            vector.intoArray(buffer, left);
+            vector.intoArray(buffer, right - lanes);
+            left += count;
+            right -= lanes - count;
+        }
+        for (; i < to; i++) {
+            double element = data[i];
+            if (element < pivot || orEqual && element == pivot)
+                buffer[left++] = element;
+            else
+                buffer[--right] = element;
+        }
+        System.arraycopy(buffer, 0, data, from, to - from);
+        return from + left;
+    }
+
+    /**
+     * Returns the median of three elements or, for large ranges, the median of three medians.
+     */
+    private static double pivot(double[] data, int from, int to){
+        int length = to - from;
+        int middle = from + (length >>> 1);
+        if (length <= NINTHER_THRESHOLD)
+            return median(data[from], data[middle], data[to - 1]);
+        int step = length >>> 3;
+        return median(median(data[from], data[from + step], data[from + 2 * step]),
+                median(data[middle - step], data[middle], data[middle + step]),
+                median(data[to - 1 - 2 * step], data[to - 1 - step], data[to - 1]));
+    }
+
+    private static double median(double a, double b, double c){
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}